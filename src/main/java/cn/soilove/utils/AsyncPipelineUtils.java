@@ -0,0 +1,432 @@
+package cn.soilove.utils;
+
+import cn.soilove.utils.concurrent.HashedWheelTimer;
+import cn.soilove.utils.concurrent.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 异步流水线
+ * <pre>
+ *     基于CompletableFuture编排多个阶段，每个阶段按bizName指定ThreadPoolUtils创建的线程池执行，
+ *     未指定时使用ForkJoinUtils共享线程池，不会落到ForkJoinPool.commonPool；
+ *     支持并行分支（fanOut）与汇聚（allOf）、超时、降级，并记录每个阶段的排队与执行耗时
+ *
+ *         // 示例
+ *         ThreadPoolUtils.newVirtualThreadExecutor("order-io", 200);
+ *         AsyncPipelineUtils.Pipeline<OrderVO> pipeline = AsyncPipelineUtils
+ *                 .supply("loadOrder", "order-io", () -> orderService.get(orderId))
+ *                 .fanOut("loadDetail", "order-io", Arrays.asList(
+ *                         order -> userService.get(order.getUserId()),
+ *                         order -> itemService.list(order.getId())))
+ *                 .thenApply("assemble", null, parts -> assemble(parts))
+ *                 .timeout(300, TimeUnit.MILLISECONDS)
+ *                 .fallback(e -> OrderVO.EMPTY);
+ *         OrderVO vo = pipeline.join();
+ *         log.info("耗时明细：" + pipeline.getStageMetrics());
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:04
+ **/
+public class AsyncPipelineUtils {
+
+    /**
+     * 超时定时器名称
+     */
+    public static final String TIMER_BIZ_NAME = "async-pipeline-timer";
+
+    /**
+     * 超时回调线程池名称
+     */
+    public static final String TIMEOUT_BIZ_NAME = "async-pipeline-timeout";
+
+    /**
+     * 各阶段累计执行耗时，key为阶段名称
+     */
+    private static final Map<String, LatencyHistogram> stageHistogramMap = new ConcurrentHashMap<>();
+
+    /**
+     * 超时定时器缓存，停止后下次获取时重新创建
+     */
+    private static volatile HashedWheelTimer timer;
+
+    /**
+     * 从第一个阶段开始
+     * @param stage 阶段名称
+     * @param bizName 执行线程池，为null时使用ForkJoinUtils共享线程池
+     * @param supplier
+     * @param <T>
+     * @return
+     */
+    public static <T> Pipeline<T> supply(String stage, String bizName, Supplier<? extends T> supplier){
+        Objects.requireNonNull(supplier);
+        Trace trace = new Trace();
+        long submitNanos = System.nanoTime();
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(
+                () -> trace.run(stage, bizName, submitNanos, supplier::get), executor(bizName));
+        return new Pipeline<>(future, trace);
+    }
+
+    /**
+     * 从已有结果开始
+     * @param value
+     * @param <T>
+     * @return
+     */
+    public static <T> Pipeline<T> completed(T value){
+        return new Pipeline<>(CompletableFuture.completedFuture(value), new Trace());
+    }
+
+    /**
+     * 汇聚多个流水线，全部完成后得到与入参顺序一致的结果；任意一个失败则整体失败
+     * @param pipelines
+     * @param <T>
+     * @return
+     */
+    public static <T> Pipeline<List<T>> allOf(List<Pipeline<? extends T>> pipelines){
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[pipelines.size()];
+        Trace[] parents = new Trace[pipelines.size()];
+        for(int i = 0; i < futures.length; i++){
+            futures[i] = pipelines.get(i).future;
+            parents[i] = pipelines.get(i).trace;
+        }
+        Trace trace = new Trace(parents);
+        CompletableFuture<List<T>> future = CompletableFuture.allOf(futures).thenApply(v -> {
+            List<T> results = new ArrayList<>(futures.length);
+            for(Pipeline<? extends T> pipeline : pipelines){
+                results.add(pipeline.future.join());
+            }
+            return results;
+        });
+        return new Pipeline<>(future, trace);
+    }
+
+    /**
+     * 获取各阶段的累计执行耗时
+     * @return key为阶段名称
+     */
+    public static Map<String, LatencyHistogram.Snapshot> stageStats(){
+        Map<String, LatencyHistogram.Snapshot> stats = new LinkedHashMap<>();
+        stageHistogramMap.forEach((stage, histogram) -> stats.put(stage, histogram.snapshot()));
+        return stats;
+    }
+
+    private static Executor executor(String bizName){
+        if(bizName == null){
+            return ForkJoinUtils.sharedPool();
+        }
+        Executor executor = ThreadPoolUtils.getExecutor(bizName);
+        if(executor == null){
+            throw new RuntimeException("线程池不存在，请先通过ThreadPoolUtils创建！bizName=" + bizName);
+        }
+        return executor;
+    }
+
+    private static HashedWheelTimer timer(){
+        HashedWheelTimer current = timer;
+        if(current == null || current.isStopped()){
+            current = ThreadPoolUtils.newHashedWheelTimer(TIMER_BIZ_NAME, 10, TimeUnit.MILLISECONDS, 512, 0);
+            timer = current;
+        }
+        return current;
+    }
+
+    private static void completeAsync(CompletableFuture<?> future, Supplier<? extends Throwable> error){
+        try {
+            ThreadPoolUtils.newCachedThreadPool(TIMEOUT_BIZ_NAME).execute(() -> future.completeExceptionally(error.get()));
+        } catch (RejectedExecutionException e) {
+            // 线程池正在关闭
+            future.completeExceptionally(error.get());
+        }
+    }
+
+    private static Throwable unwrap(Throwable e){
+        while((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null){
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * 流水线，每次编排返回新的Pipeline，同一请求的各阶段共享耗时记录
+     * @param <T>
+     */
+    public static final class Pipeline<T> {
+        private final CompletableFuture<T> future;
+        private final Trace trace;
+
+        private Pipeline(CompletableFuture<T> future, Trace trace) {
+            this.future = future;
+            this.trace = trace;
+        }
+
+        /**
+         * 追加阶段
+         * @param stage 阶段名称
+         * @param bizName 执行线程池，为null时使用ForkJoinUtils共享线程池
+         * @param fn
+         * @param <R>
+         * @return
+         */
+        public <R> Pipeline<R> thenApply(String stage, String bizName, Function<? super T, ? extends R> fn){
+            Objects.requireNonNull(fn);
+            Executor executor = executor(bizName);
+            CompletableFuture<R> next = new CompletableFuture<>();
+            future.whenComplete((value, e) -> {
+                if(e != null){
+                    next.completeExceptionally(e);
+                    return;
+                }
+                long submitNanos = System.nanoTime();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            next.complete(trace.run(stage, bizName, submitNanos, () -> fn.apply(value)));
+                        } catch (Throwable t) {
+                            next.completeExceptionally(t);
+                        }
+                    });
+                } catch (Throwable t) {
+                    // 线程池拒绝
+                    next.completeExceptionally(t);
+                }
+            });
+            return new Pipeline<>(next, trace);
+        }
+
+        /**
+         * 并行分支：上一阶段的结果交给多个分支同时处理，全部完成后得到与分支顺序一致的结果
+         * @param stage 阶段名称，分支记录为stage[下标]
+         * @param bizName 执行线程池，为null时使用ForkJoinUtils共享线程池
+         * @param branches
+         * @param <R>
+         * @return
+         */
+        public <R> Pipeline<List<R>> fanOut(String stage, String bizName, List<Function<? super T, ? extends R>> branches){
+            Executor executor = executor(bizName);
+            CompletableFuture<List<R>> next = future.thenCompose(value -> {
+                List<CompletableFuture<R>> futures = new ArrayList<>(branches.size());
+                long submitNanos = System.nanoTime();
+                for(int i = 0; i < branches.size(); i++){
+                    Function<? super T, ? extends R> branch = branches.get(i);
+                    String branchStage = stage + "[" + i + "]";
+                    futures.add(CompletableFuture.supplyAsync(
+                            () -> trace.run(branchStage, bizName, submitNanos, () -> branch.apply(value)), executor));
+                }
+                return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+                    List<R> results = new ArrayList<>(futures.size());
+                    for(CompletableFuture<R> f : futures){
+                        results.add(f.join());
+                    }
+                    return results;
+                });
+            });
+            return new Pipeline<>(next, trace);
+        }
+
+        /**
+         * 与另一个流水线的结果合并，在完成较晚的一方所在线程中执行
+         * @param other
+         * @param fn
+         * @param <U>
+         * @param <R>
+         * @return
+         */
+        public <U, R> Pipeline<R> thenCombine(Pipeline<? extends U> other, BiFunction<? super T, ? super U, ? extends R> fn){
+            return new Pipeline<>(future.thenCombine(other.future, fn), new Trace(trace, other.trace));
+        }
+
+        /**
+         * 超时：到此为止的流水线未在timeout内完成时以TimeoutException失败，可通过fallback降级
+         * <pre>
+         *     超时不会中断正在执行的阶段，已提交的阶段仍会执行完成，但结果被丢弃
+         * </pre>
+         * @param timeout
+         * @param unit
+         * @return
+         */
+        public Pipeline<T> timeout(long timeout, TimeUnit unit){
+            CompletableFuture<T> next = new CompletableFuture<>();
+            // 超时回调转交独立线程池：后续阶段的同步回调不占用定时器线程，且不受被超时阶段所在线程池饱和的影响
+            HashedWheelTimer.Timeout task = timer().newTimeout(() -> completeAsync(next,
+                    () -> new TimeoutException("流水线执行超时！timeout=" + unit.toMillis(timeout) + "ms")), timeout, unit);
+            future.whenComplete((value, e) -> {
+                task.cancel();
+                if(e != null){
+                    next.completeExceptionally(e);
+                }else{
+                    next.complete(value);
+                }
+            });
+            return new Pipeline<>(next, trace);
+        }
+
+        /**
+         * 降级：到此为止的流水线失败（含超时）时返回降级结果
+         * @param fn 入参为原始异常（已去除CompletionException包装）
+         * @return
+         */
+        public Pipeline<T> fallback(Function<Throwable, ? extends T> fn){
+            Objects.requireNonNull(fn);
+            return new Pipeline<>(future.exceptionally(e -> fn.apply(unwrap(e))), trace);
+        }
+
+        /**
+         * 降级：到此为止的流水线失败（含超时）时返回默认值
+         * @param value
+         * @return
+         */
+        public Pipeline<T> fallback(T value){
+            return fallback(e -> value);
+        }
+
+        /**
+         * 等待结果
+         * @return
+         */
+        public T join(){
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = unwrap(e);
+                if(cause instanceof RuntimeException){
+                    throw (RuntimeException) cause;
+                }
+                throw e;
+            }
+        }
+
+        public CompletableFuture<T> toFuture(){
+            return future;
+        }
+
+        /**
+         * 本次请求各阶段的耗时，按完成顺序排列
+         * @return
+         */
+        public List<StageMetric> getStageMetrics(){
+            return trace.metrics();
+        }
+    }
+
+    /**
+     * 单个阶段的耗时
+     */
+    public static final class StageMetric {
+        private final String stage;
+        private final String bizName;
+        /**
+         * 提交到开始执行的排队耗时，单位：纳秒
+         */
+        private final long waitNanos;
+        /**
+         * 执行耗时，单位：纳秒
+         */
+        private final long runNanos;
+        private final boolean success;
+        private final long endNanos;
+
+        public StageMetric(String stage, String bizName, long waitNanos, long runNanos, boolean success) {
+            this.stage = stage;
+            this.bizName = bizName;
+            this.waitNanos = waitNanos;
+            this.runNanos = runNanos;
+            this.success = success;
+            this.endNanos = System.nanoTime();
+        }
+
+        public String getStage() {
+            return stage;
+        }
+
+        public String getBizName() {
+            return bizName;
+        }
+
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        public long getRunNanos() {
+            return runNanos;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        @Override
+        public String toString() {
+            return stage + "{bizName=" + (bizName == null ? ForkJoinUtils.SHARED_BIZ_NAME : bizName)
+                    + ", wait=" + TimeUnit.NANOSECONDS.toMicros(waitNanos) / 1000.0 + "ms"
+                    + ", run=" + TimeUnit.NANOSECONDS.toMicros(runNanos) / 1000.0 + "ms"
+                    + (success ? "" : ", failed") + "}";
+        }
+    }
+
+    /**
+     * 同一请求的阶段耗时记录，汇聚时引用各分支的记录
+     */
+    private static final class Trace {
+        private final List<StageMetric> metrics = Collections.synchronizedList(new ArrayList<>());
+        private final Trace[] parents;
+
+        private Trace(Trace... parents) {
+            this.parents = parents;
+        }
+
+        private <R> R run(String stage, String bizName, long submitNanos, Supplier<R> body){
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                R result = body.get();
+                success = true;
+                return result;
+            } finally {
+                long runNanos = System.nanoTime() - start;
+                metrics.add(new StageMetric(stage, bizName, start - submitNanos, runNanos, success));
+                stageHistogramMap.computeIfAbsent(stage, k -> new LatencyHistogram()).record(runNanos);
+            }
+        }
+
+        private List<StageMetric> metrics(){
+            Set<Trace> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<StageMetric> result = new ArrayList<>();
+            collect(this, visited, result);
+            result.sort(Comparator.comparingLong(metric -> metric.endNanos));
+            return result;
+        }
+
+        private static void collect(Trace trace, Set<Trace> visited, List<StageMetric> result){
+            if(!visited.add(trace)){
+                return;
+            }
+            synchronized (trace.metrics){
+                result.addAll(trace.metrics);
+            }
+            for(Trace parent : trace.parents){
+                collect(parent, visited, result);
+            }
+        }
+    }
+}
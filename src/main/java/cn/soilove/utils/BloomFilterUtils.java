@@ -3,12 +3,16 @@ package cn.soilove.utils;
 import com.google.common.base.Charsets;
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnels;
+import cn.soilove.utils.bloom.BlockedBloomFilter;
+import cn.soilove.utils.bloom.ScalableBloomFilter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 布隆过滤器
@@ -21,6 +25,16 @@ public class BloomFilterUtils {
 
     private static final Map<String, BloomFilter<CharSequence>> bloomFilterMap = new ConcurrentHashMap<>();
     private static final Map<String, Integer> expectedInsertionsMap = new ConcurrentHashMap<>();
+    /**
+     * Guava过滤器的插入计数（put返回true时累加），避免每次插入统计位数组
+     */
+    private static final Map<String, LongAdder> insertionCountMap = new ConcurrentHashMap<>();
+    private static final Map<String, BlockedBloomFilter> concurrentBloomFilterMap = new ConcurrentHashMap<>();
+    private static final Map<String, ScalableBloomFilter> scalableBloomFilterMap = new ConcurrentHashMap<>();
+    /**
+     * 命名空间占用的过滤器类型，先原子占用类型再创建过滤器，保证命名空间不会同时用于多种过滤器
+     */
+    private static final Map<String, Class<?>> namespaceTypeMap = new ConcurrentHashMap<>();
     private static final double DEF_FPP = 0.00001;
 
     /**
@@ -41,14 +55,59 @@ public class BloomFilterUtils {
      * @return
      */
     public static BloomFilter<CharSequence> create(String namespace, int expectedInsertions,Double fpp){
-        BloomFilter<CharSequence> bloomFilter = bloomFilterMap.get(namespace);
-        if(bloomFilter == null){
-            bloomFilter = BloomFilter.create(Funnels.stringFunnel(Charsets.UTF_8), expectedInsertions, fpp != null ? fpp : DEF_FPP);
-            bloomFilterMap.put(namespace,bloomFilter);
+        checkNamespace(namespace, BloomFilter.class);
+        return bloomFilterMap.computeIfAbsent(namespace, k -> {
             // 记录容量
             expectedInsertionsMap.put(namespace,expectedInsertions);
-        }
-        return bloomFilter;
+            insertionCountMap.put(namespace,new LongAdder());
+            return BloomFilter.create(Funnels.stringFunnel(Charsets.UTF_8), expectedInsertions, fpp != null ? fpp : DEF_FPP);
+        });
+    }
+
+    /**
+     * 创建并发过滤器（分块布隆过滤器，无锁插入，插入计数增量维护）
+     * @param namespace 过滤器命名空间
+     * @param expectedInsertions 过滤器容量
+     * @return
+     */
+    public static BlockedBloomFilter createConcurrent(String namespace, int expectedInsertions){
+        return createConcurrent(namespace,expectedInsertions,null);
+    }
+
+    /**
+     * 创建并发过滤器（分块布隆过滤器，无锁插入，插入计数增量维护）
+     * @param namespace 过滤器命名空间
+     * @param expectedInsertions 过滤器容量
+     * @param fpp 期望的假阳性概率 0-1之间取值，值越小越精确，消耗的内存也更大，如：0.00001
+     * @return
+     */
+    public static BlockedBloomFilter createConcurrent(String namespace, int expectedInsertions,Double fpp){
+        checkNamespace(namespace, BlockedBloomFilter.class);
+        return concurrentBloomFilterMap.computeIfAbsent(namespace,
+                k -> new BlockedBloomFilter(expectedInsertions, fpp != null ? fpp : DEF_FPP));
+    }
+
+    /**
+     * 创建可扩容过滤器（写满后自动追加层，不会因容量不足抛出异常）
+     * @param namespace 过滤器命名空间
+     * @param initialCapacity 初始容量
+     * @return
+     */
+    public static ScalableBloomFilter createScalable(String namespace, int initialCapacity){
+        return createScalable(namespace,initialCapacity,null);
+    }
+
+    /**
+     * 创建可扩容过滤器（写满后自动追加层，不会因容量不足抛出异常）
+     * @param namespace 过滤器命名空间
+     * @param initialCapacity 初始容量
+     * @param fpp 整体期望的假阳性概率 0-1之间取值，如：0.00001
+     * @return
+     */
+    public static ScalableBloomFilter createScalable(String namespace, int initialCapacity,Double fpp){
+        checkNamespace(namespace, ScalableBloomFilter.class);
+        return scalableBloomFilterMap.computeIfAbsent(namespace,
+                k -> new ScalableBloomFilter(initialCapacity, fpp != null ? fpp : DEF_FPP));
     }
 
     /**
@@ -57,9 +116,23 @@ public class BloomFilterUtils {
      * @param item 元素
      */
     public static void put(String namespace,String item){
+        ScalableBloomFilter scalableFilter = scalableBloomFilterMap.get(namespace);
+        if(scalableFilter != null){
+            scalableFilter.put(item);
+            return;
+        }
+        BlockedBloomFilter concurrentFilter = concurrentBloomFilterMap.get(namespace);
+        if(concurrentFilter != null){
+            check(concurrentFilter.approximateElementCount(),1,concurrentFilter.getExpectedInsertions(),namespace);
+            concurrentFilter.put(item);
+            return;
+        }
         BloomFilter<CharSequence> bloomFilter = getCharSequenceBloomFilter(namespace);
-        check(bloomFilter,namespace);
-        bloomFilter.put(item);
+        LongAdder counter = insertionCountMap.get(namespace);
+        check(counter.sum(),1,getExpectedInsertions(namespace),namespace);
+        if(bloomFilter.put(item)){
+            counter.increment();
+        }
     }
 
     /**
@@ -68,23 +141,34 @@ public class BloomFilterUtils {
      * @param items 元素
      */
     public static void put(String namespace,String ... items){
-        BloomFilter<CharSequence> bloomFilter = getCharSequenceBloomFilter(namespace);
-        for (String item : items){
-            check(bloomFilter,namespace);
-            bloomFilter.put(item);
-        }
+        put(namespace, Arrays.asList(items));
     }
 
     /**
-     * 添加元素
+     * 批量添加元素，过滤器与容量只查找一次；并发过滤器按整批检测一次容量，容量不足时整批不添加
      * @param namespace 过滤器命名空间
      * @param items 元素
      */
     public static void put(String namespace, List<String> items){
+        ScalableBloomFilter scalableFilter = scalableBloomFilterMap.get(namespace);
+        if(scalableFilter != null){
+            scalableFilter.putAll(items);
+            return;
+        }
+        BlockedBloomFilter concurrentFilter = concurrentBloomFilterMap.get(namespace);
+        if(concurrentFilter != null){
+            check(concurrentFilter.approximateElementCount(),items.size(),concurrentFilter.getExpectedInsertions(),namespace);
+            concurrentFilter.putAll(items);
+            return;
+        }
         BloomFilter<CharSequence> bloomFilter = getCharSequenceBloomFilter(namespace);
+        LongAdder counter = insertionCountMap.get(namespace);
+        long expectedInsertions = getExpectedInsertions(namespace);
         for (String item : items){
-            check(bloomFilter,namespace);
-            bloomFilter.put(item);
+            check(counter.sum(),1,expectedInsertions,namespace);
+            if(bloomFilter.put(item)){
+                counter.increment();
+            }
         }
     }
 
@@ -94,6 +178,14 @@ public class BloomFilterUtils {
      * @param item 元素
      */
     public static boolean mightContain(String namespace,String item){
+        ScalableBloomFilter scalableFilter = scalableBloomFilterMap.get(namespace);
+        if(scalableFilter != null){
+            return scalableFilter.mightContain(item);
+        }
+        BlockedBloomFilter concurrentFilter = concurrentBloomFilterMap.get(namespace);
+        if(concurrentFilter != null){
+            return concurrentFilter.mightContain(item);
+        }
         BloomFilter<CharSequence> bloomFilter = getCharSequenceBloomFilter(namespace);
         return bloomFilter.mightContain(item);
     }
@@ -112,19 +204,34 @@ public class BloomFilterUtils {
         return bloomFilter;
     }
 
+    private static long getExpectedInsertions(String namespace){
+        return Optional.ofNullable(expectedInsertionsMap.get(namespace)).orElse(0);
+    }
+
+    /**
+     * 命名空间不能同时用于多种过滤器
+     * @param namespace 过滤器命名空间
+     * @param type 本次创建的过滤器类型
+     */
+    private static void checkNamespace(String namespace, Class<?> type){
+        Class<?> existType = namespaceTypeMap.putIfAbsent(namespace, type);
+        if(existType != null && existType != type){
+            log.error("[bloomFilter]命名空间已被其他类型的布隆过滤器占用，namespace:" + namespace);
+            throw new RuntimeException("命名空间已被其他类型的布隆过滤器占用，namespace:" + namespace);
+        }
+    }
+
     /**
      * 检测容量
-     * @param bloomFilter 过滤器
+     * @param count 已添加的元素数量
+     * @param size 本次添加的元素数量
+     * @param expectedInsertions 过滤器容量
      * @param namespace 过滤器命名空间
      */
-    private static void check(BloomFilter<CharSequence> bloomFilter,String namespace){
-        int count = Optional.ofNullable(expectedInsertionsMap.get(namespace)).orElse(0);
-        if(count <= bloomFilter.approximateElementCount()){
-            log.error("[bloomFilter]布隆过滤器容量不足，已达上限值：" + bloomFilter.approximateElementCount() + "，namespace：" + namespace);
-            throw new RuntimeException("布隆过滤器容量不足" + "，已达上限值：" + bloomFilter.approximateElementCount() + "，namespace:" + namespace);
+    private static void check(long count,int size,long expectedInsertions,String namespace){
+        if(expectedInsertions < count + size){
+            log.error("[bloomFilter]布隆过滤器容量不足，已达上限值：" + count + "，namespace：" + namespace);
+            throw new RuntimeException("布隆过滤器容量不足" + "，已达上限值：" + count + "，namespace:" + namespace);
         }
     }
 }
-
-
-
@@ -1,12 +1,45 @@
 package cn.soilove.utils;
 
+import cn.soilove.utils.cache.BatchingInvalidationPublisher;
+import cn.soilove.utils.cache.CacheInvalidation;
+import cn.soilove.utils.cache.CacheInvalidationBus;
+import cn.soilove.utils.cache.CacheL2Store;
+import cn.soilove.utils.cache.CacheSerializer;
+import cn.soilove.utils.cache.CacheSnapshot;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -15,23 +48,83 @@ import java.util.function.Supplier;
  * @author: Chen GuoLin
  * @create: 2020-04-14 17:17
  **/
+@Slf4j
 public class CaffeineCacheUtils {
     /**
      * 空值
      */
     private static final String NULL_VALUE = "NULL_VALUE";
 
+    /**
+     * 固定时间缓存在统计、快照等接口中的命名空间名称，为保留名称，不能用于创建动态缓存命名空间
+     */
+    public static final String FIXED_4_MINUTES = "fixed4Minutes";
+    public static final String FIXED_4_HOURS = "fixed4Hours";
+    public static final String FIXED_4_DAYS = "fixed4Days";
+
+    /**
+     * 统计上报线程池名称
+     */
+    private static final String STATS_REPORTER_BIZ_NAME = "caffeine-cache-stats";
+
+    /**
+     * 失效消息发布线程池名称
+     */
+    private static final String INVALIDATION_BIZ_NAME = "caffeine-cache-invalidation";
+
+    /**
+     * 失效消息默认批次大小
+     */
+    private static final int DEF_INVALIDATION_BATCH_SIZE = 500;
+
+    /**
+     * 失效消息默认最长等待时间，单位：毫秒
+     */
+    private static final long DEF_INVALIDATION_LINGER_MILLIS = 20;
+
     /**
      * 本地缓存最大数量
      */
     private static final long LOCAL_CAFFEINE_MAXIMUM_SIZE = 1000_0000;
 
+    /**
+     * 固定时间缓存刷新阈值比例，写入时间超过过期时间的该比例后异步刷新
+     */
+    private static final double FIXED_REFRESH_RATIO = 0.8;
+
+    /**
+     * 固定过期时间的命名空间加载快照时，剩余过期时间不足过期时间的该比例的数据不加载，
+     * 避免即将过期的数据重新计时后存活过久
+     */
+    private static final double SNAPSHOT_MIN_REMAINING_RATIO = 0.5;
+
+    /**
+     * 超出全局内存预算时，每轮从占用最大的命名空间淘汰的数量
+     */
+    private static final int GLOBAL_EVICT_BATCH = 256;
+
+    /**
+     * 全局内存预算检测间隔，每累计写入该数量后检测一次，避免每次写入都统计全部命名空间
+     */
+    private static final int GLOBAL_CHECK_INTERVAL = 64;
+
+    /**
+     * 默认对象内存占用估算的递归层级上限
+     */
+    private static final int ESTIMATE_MAX_DEPTH = 3;
+
+    /**
+     * 按条目指定过期时间的标记与缓存条目过期时刻的允许偏差，单位：毫秒；超过时视为条目已被按默认过期时间覆盖
+     */
+    private static final long EXPLICIT_TTL_TOLERANCE_MILLIS = 100;
+
     /**
      * 固定时间缓存 - 1分钟
      */
     private static final Cache<Object, Object> fixed4MinutesCache = Caffeine.newBuilder()
             .maximumSize(LOCAL_CAFFEINE_MAXIMUM_SIZE)
             .expireAfterWrite(1, TimeUnit.MINUTES)
+            .recordStats()
             .build();
     /**
      * 固定时间缓存 - 1小时
@@ -39,6 +132,7 @@ public class CaffeineCacheUtils {
     private static final Cache<Object, Object> fixed4HourCache = Caffeine.newBuilder()
             .maximumSize(LOCAL_CAFFEINE_MAXIMUM_SIZE)
             .expireAfterWrite(1, TimeUnit.HOURS)
+            .recordStats()
             .build();
     /**
      * 固定时间缓存 - 1天
@@ -46,6 +140,7 @@ public class CaffeineCacheUtils {
     private static final Cache<Object, Object> fixed4DayCache = Caffeine.newBuilder()
             .maximumSize(LOCAL_CAFFEINE_MAXIMUM_SIZE)
             .expireAfterWrite(1, TimeUnit.DAYS)
+            .recordStats()
             .build();
 
     /**
@@ -55,16 +150,130 @@ public class CaffeineCacheUtils {
      */
     private static final Map<String, Cache<Object, Object>> cacheMap = new ConcurrentHashMap<>();
 
+    /**
+     * 动态时间缓存配置map
+     * key=缓存namespace
+     * value=创建该命名空间时使用的配置
+     */
+    private static final Map<String, CacheSpec> cacheSpecMap = new ConcurrentHashMap<>();
+
+    /**
+     * 动态缓存命名空间最大数量，默认不限制
+     */
+    private static volatile int maxNamespaces = Integer.MAX_VALUE;
+
+    /**
+     * 已告警过的冲突配置，同一命名空间的同一冲突配置只告警一次
+     * key=缓存namespace
+     * value=与已有配置冲突的配置
+     */
+    private static final Map<String, Set<CacheSpec>> conflictSpecMap = new ConcurrentHashMap<>();
+
+    /**
+     * 正在异步刷新的key，防止同一key重复提交刷新任务
+     */
+    private static final Set<RefreshKey> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 开启二级缓存时正在加载的key，同一key并发未命中时只有一个线程读取二级缓存、执行supplier
+     */
+    private static final Map<RefreshKey, CompletableFuture<Object>> loadingMap = new ConcurrentHashMap<>();
+
+    /**
+     * 按条目指定过期时间写入的key，与缓存条目同时过期；异步刷新按原过期时间推算写入时长、写回时沿用原过期时间
+     */
+    private static final Cache<Object, Object> explicitTtlCache = Caffeine.newBuilder()
+            .maximumSize(LOCAL_CAFFEINE_MAXIMUM_SIZE)
+            .expireAfter(new ExplicitTtlExpiry())
+            .build();
+
+    /**
+     * 异步刷新执行器，默认ForkJoinPool.commonPool()
+     */
+    private static volatile Executor refreshExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * 对象内存占用估算器，按权重淘汰时使用
+     */
+    private static volatile SizeEstimator sizeEstimator = CaffeineCacheUtils::estimateSize;
+
+    /**
+     * 动态缓存全局内存预算，单位：字节，0表示不限制
+     */
+    private static volatile long globalMaximumWeight = 0;
+
+    /**
+     * 全局内存预算淘汰锁，同一时间只有一个线程执行淘汰
+     */
+    private static final ReentrantLock globalEvictLock = new ReentrantLock();
+
+    /**
+     * 按权重淘汰的命名空间累计写入数量，用于按间隔检测全局内存预算
+     */
+    private static final AtomicLong globalWriteCount = new AtomicLong();
+
+    /**
+     * 普通对象的类结构缓存，默认对象内存占用估算使用，避免每次写入都反射
+     */
+    private static final Map<Class<?>, ClassLayout> classLayoutMap = new ConcurrentHashMap<>();
+
+    /**
+     * 二级缓存，为null时仅使用本地缓存
+     */
+    private static volatile CacheL2Store l2Store;
+
+    /**
+     * 失效广播总线及合并发布器，为null时仅删除本地缓存
+     */
+    private static CacheInvalidationBus invalidationBus;
+    private static volatile BatchingInvalidationPublisher invalidationPublisher;
+
+    /**
+     * 失效消息订阅处理
+     */
+    private static final Consumer<List<CacheInvalidation>> INVALIDATION_LISTENER = CaffeineCacheUtils::applyInvalidations;
+
+    /**
+     * 统计定时上报任务
+     */
+    private static ScheduledFuture<?> statsReportFuture;
+
+    /**
+     * 日志统计上报
+     */
+    public static final StatsReporter LOG_STATS_REPORTER = snapshots -> snapshots.forEach(snapshot ->
+            log.info("[caffeine][stats]namespace=" + snapshot.getNamespace()
+                    + "，size=" + snapshot.getEstimatedSize()
+                    + "，weightedSize=" + snapshot.getWeightedSize()
+                    + "，stats=" + snapshot.getStats()));
+
 
     /**
      * 获取缓存、无则设值 - 1分钟
      * @param key
-     * @param supplier
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
      * @param <R>
      * @return
      */
     public static <R> R getFixed4Minutes(String key,Supplier<R> supplier){
-        return getR4Set(fixed4MinutesCache,key,supplier);
+        return getR4Set(FIXED_4_MINUTES,fixed4MinutesCache,key,supplier);
+    }
+
+    /**
+     * 获取缓存、无则设值、提前异步刷新 - 1分钟
+     * <pre>
+     *     写入超过48秒后的读取直接返回当前值，同时在刷新执行器上异步执行supplier更新缓存，
+     *     热点key不会在过期时刻阻塞请求
+     * </pre>
+     * @param key
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
+     * @param <R>
+     * @return
+     */
+    public static <R> R getFixed4MinutesRefresh(String key,Supplier<R> supplier){
+        return getR4Refresh(FIXED_4_MINUTES,fixed4MinutesCache,key,TimeUnit.MINUTES.toMillis(1),fixedRefreshMillis(TimeUnit.MINUTES),supplier);
     }
 
     /**
@@ -74,7 +283,7 @@ public class CaffeineCacheUtils {
      * @return
      */
     public static <R> R getFixed4Minutes(String key){
-        return getR(key, fixed4MinutesCache);
+        return getR(FIXED_4_MINUTES,key,fixed4MinutesCache);
     }
 
     /**
@@ -83,7 +292,7 @@ public class CaffeineCacheUtils {
      * @param obj
      */
     public static void setFixed4Minutes(String key, Object obj) {
-        fixed4MinutesCache.put(key,obj);
+        setR(FIXED_4_MINUTES,fixed4MinutesCache,key,obj);
     }
 
     /**
@@ -91,19 +300,57 @@ public class CaffeineCacheUtils {
      * @param key
      */
     public static void delFixed4Minutes(String key){
-        fixed4MinutesCache.invalidate(key);
+        delR(FIXED_4_MINUTES,fixed4MinutesCache,key);
+    }
+
+    /**
+     * 批量获取缓存、无则批量设值 - 1分钟
+     * <pre>
+     *     未命中的key合并为一次batchLoader调用；batchLoader未返回的key按空值缓存
+     * </pre>
+     * @param keys
+     * @param batchLoader 入参为未命中的key集合，返回key对应的数据
+     * @param <R>
+     * @return 命中或加载成功的数据，不包含空值
+     */
+    public static <R> Map<String, R> getAllFixed4Minutes(Collection<String> keys, Function<Set<String>, Map<String, R>> batchLoader) {
+        return getAllR4Set(FIXED_4_MINUTES,fixed4MinutesCache,keys,batchLoader);
+    }
+
+    /**
+     * 批量缓存设值 - 1分钟
+     * @param map
+     */
+    public static void setAllFixed4Minutes(Map<String, ?> map) {
+        setAllR(FIXED_4_MINUTES,fixed4MinutesCache,map);
     }
 
 
     /**
      * 获取缓存、无则设值 - 1小时
      * @param key
-     * @param supplier
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
      * @param <R>
      * @return
      */
     public static <R> R getFixed4Hours(String key, Supplier<R> supplier) {
-        return getR4Set(fixed4HourCache,key,supplier);
+        return getR4Set(FIXED_4_HOURS,fixed4HourCache,key,supplier);
+    }
+
+    /**
+     * 获取缓存、无则设值、提前异步刷新 - 1小时
+     * <pre>
+     *     写入超过48分钟后的读取直接返回当前值，同时异步刷新
+     * </pre>
+     * @param key
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
+     * @param <R>
+     * @return
+     */
+    public static <R> R getFixed4HoursRefresh(String key, Supplier<R> supplier) {
+        return getR4Refresh(FIXED_4_HOURS,fixed4HourCache,key,TimeUnit.HOURS.toMillis(1),fixedRefreshMillis(TimeUnit.HOURS),supplier);
     }
 
     /**
@@ -113,7 +360,7 @@ public class CaffeineCacheUtils {
      * @return
      */
     public static <R> R getFixed4Hours(String key) {
-        return getR(key,fixed4HourCache);
+        return getR(FIXED_4_HOURS,key,fixed4HourCache);
     }
 
     /**
@@ -122,7 +369,7 @@ public class CaffeineCacheUtils {
      * @param obj
      */
     public static void setFixed4Hours(String key, Object obj) {
-        fixed4HourCache.put(key,obj);
+        setR(FIXED_4_HOURS,fixed4HourCache,key,obj);
     }
 
     /**
@@ -130,18 +377,56 @@ public class CaffeineCacheUtils {
      * @param key
      */
     public static void delFixed4Hours(String key) {
-        fixed4HourCache.invalidate(key);
+        delR(FIXED_4_HOURS,fixed4HourCache,key);
+    }
+
+    /**
+     * 批量获取缓存、无则批量设值 - 1小时
+     * <pre>
+     *     未命中的key合并为一次batchLoader调用；batchLoader未返回的key按空值缓存
+     * </pre>
+     * @param keys
+     * @param batchLoader 入参为未命中的key集合，返回key对应的数据
+     * @param <R>
+     * @return 命中或加载成功的数据，不包含空值
+     */
+    public static <R> Map<String, R> getAllFixed4Hours(Collection<String> keys, Function<Set<String>, Map<String, R>> batchLoader) {
+        return getAllR4Set(FIXED_4_HOURS,fixed4HourCache,keys,batchLoader);
+    }
+
+    /**
+     * 批量缓存设值 - 1小时
+     * @param map
+     */
+    public static void setAllFixed4Hours(Map<String, ?> map) {
+        setAllR(FIXED_4_HOURS,fixed4HourCache,map);
     }
 
     /**
      * 获取缓存、无则设值 - 1天
      * @param key
-     * @param supplier
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
      * @param <R>
      * @return
      */
     public static <R> R getFixed4Days(String key, Supplier<R> supplier) {
-        return getR4Set(fixed4DayCache,key,supplier);
+        return getR4Set(FIXED_4_DAYS,fixed4DayCache,key,supplier);
+    }
+
+    /**
+     * 获取缓存、无则设值、提前异步刷新 - 1天
+     * <pre>
+     *     写入超过0.8天后的读取直接返回当前值，同时异步刷新
+     * </pre>
+     * @param key
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
+     * @param <R>
+     * @return
+     */
+    public static <R> R getFixed4DaysRefresh(String key, Supplier<R> supplier) {
+        return getR4Refresh(FIXED_4_DAYS,fixed4DayCache,key,TimeUnit.DAYS.toMillis(1),fixedRefreshMillis(TimeUnit.DAYS),supplier);
     }
 
     /**
@@ -151,7 +436,7 @@ public class CaffeineCacheUtils {
      * @return
      */
     public static <R> R getFixed4Days(String key) {
-        return getR(key,fixed4DayCache);
+        return getR(FIXED_4_DAYS,key,fixed4DayCache);
     }
 
     /**
@@ -160,7 +445,7 @@ public class CaffeineCacheUtils {
      * @param obj
      */
     public static void setFixed4Days(String key, Object obj) {
-        fixed4DayCache.put(key,obj);
+        setR(FIXED_4_DAYS,fixed4DayCache,key,obj);
     }
 
     /**
@@ -168,7 +453,29 @@ public class CaffeineCacheUtils {
      * @param key
      */
     public static void delFixed4Days(String key) {
-        fixed4DayCache.invalidate(key);
+        delR(FIXED_4_DAYS,fixed4DayCache,key);
+    }
+
+    /**
+     * 批量获取缓存、无则批量设值 - 1天
+     * <pre>
+     *     未命中的key合并为一次batchLoader调用；batchLoader未返回的key按空值缓存
+     * </pre>
+     * @param keys
+     * @param batchLoader 入参为未命中的key集合，返回key对应的数据
+     * @param <R>
+     * @return 命中或加载成功的数据，不包含空值
+     */
+    public static <R> Map<String, R> getAllFixed4Days(Collection<String> keys, Function<Set<String>, Map<String, R>> batchLoader) {
+        return getAllR4Set(FIXED_4_DAYS,fixed4DayCache,keys,batchLoader);
+    }
+
+    /**
+     * 批量缓存设值 - 1天
+     * @param map
+     */
+    public static void setAllFixed4Days(Map<String, ?> map) {
+        setAllR(FIXED_4_DAYS,fixed4DayCache,map);
     }
 
     /**
@@ -176,7 +483,8 @@ public class CaffeineCacheUtils {
      * @param namespace
      * @param key
      * @param expireSecond
-     * @param supplier
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
      * @param <R>
      * @return
      */
@@ -184,7 +492,43 @@ public class CaffeineCacheUtils {
         // 获取缓存
         Cache<Object, Object> caffeineCache = loadCaffeine(namespace,expireSecond);
 
-        return getR4Set(caffeineCache,key,supplier);
+        return getR4Set(namespace,caffeineCache,key,supplier);
+    }
+
+    /**
+     * 获取缓存、无则设值、提前异步刷新 - 动态缓存、命名空间
+     * <pre>
+     *     写入超过refreshSecond后的读取直接返回当前值，同时异步执行supplier刷新缓存；
+     *     超过expireSecond仍未刷新的数据过期，下次读取同步加载；
+     *     按条目过期的命名空间在剩余过期时间不超过(过期时间 - refreshSecond)时刷新，按条目指定过期时间写入的key以写入时的过期时间计算、刷新后沿用原过期时间；
+     *     刷新时间按命名空间已有配置的过期时间校验
+     * </pre>
+     * @param namespace
+     * @param key
+     * @param expireSecond 过期时间，单位：秒
+     * @param refreshSecond 刷新时间，单位：秒，需小于过期时间
+     * @param supplier 未命中时的加载逻辑，在缓存的原子加载（ConcurrentHashMap.compute）中执行：
+     *                 不能在其中读写同一命名空间的缓存，否则抛出IllegalStateException（Recursive update）或死锁
+     * @param <R>
+     * @return
+     */
+    public static <R> R get(String namespace,String key, long expireSecond, long refreshSecond, Supplier<R> supplier){
+        // 获取缓存
+        Cache<Object, Object> caffeineCache = loadCaffeine(namespace,expireSecond);
+
+        // 已存在的命名空间沿用已有配置，按实际生效的过期时间校验
+        CacheSpec spec = cacheSpecMap.get(namespace);
+        long actualExpireSecond = spec != null ? spec.getExpireSecond() : expireSecond;
+        if(refreshSecond <= 0 || refreshSecond >= actualExpireSecond){
+            throw new IllegalArgumentException("刷新时间必须大于0且小于命名空间过期时间，namespace:" + namespace + "，expireSecond=" + actualExpireSecond);
+        }
+        Policy<Object, Object> policy = caffeineCache.policy();
+        if(!policy.expireAfterWrite().isPresent() && !policy.expireVariably().isPresent()){
+            log.error("[caffeine]本地缓存命名空间不支持提前异步刷新！namespace=" + namespace + "，spec=" + spec);
+            throw new RuntimeException("本地缓存命名空间不支持提前异步刷新，namespace:" + namespace);
+        }
+
+        return getR4Refresh(namespace,caffeineCache,key,TimeUnit.SECONDS.toMillis(actualExpireSecond),TimeUnit.SECONDS.toMillis(refreshSecond),supplier);
     }
 
     /**
@@ -196,7 +540,7 @@ public class CaffeineCacheUtils {
      */
     public static <R> R get(String namespace,String key){
         Cache<Object, Object> caffeineCache = cacheMap.get(namespace);
-        return getR(key, caffeineCache);
+        return getR(namespace, key, caffeineCache);
     }
 
     /**
@@ -209,7 +553,80 @@ public class CaffeineCacheUtils {
     public static void set(String namespace,String key, long expireSecond, Object obj) {
         // 获取缓存
         Cache<Object, Object> caffeineCache = loadCaffeine(namespace,expireSecond);
-        caffeineCache.put(key,obj);
+        setR(namespace,caffeineCache,key,obj);
+    }
+
+    /**
+     * 缓存设值、按条目指定过期时间 - 动态缓存、命名空间
+     * <pre>
+     *     同一命名空间内不同key可使用不同过期时间，命名空间不存在时以ttl为默认过期时间创建按条目过期的命名空间；
+     *     命名空间配置了随机抖动时，ttl同样按比例随机浮动
+     *
+     *     // 示例
+     *     CaffeineCacheUtils.create("order", CaffeineCacheUtils.CacheSpec.of(600).withJitter(0.1));
+     *     CaffeineCacheUtils.set("order", "1001", order, 30, TimeUnit.SECONDS);
+     * </pre>
+     * @param namespace
+     * @param key
+     * @param obj
+     * @param ttl 过期时间
+     * @param unit 过期时间单位
+     */
+    public static void set(String namespace, String key, Object obj, long ttl, TimeUnit unit) {
+        if(ttl <= 0){
+            throw new IllegalArgumentException("过期时间必须大于0");
+        }
+        // 获取缓存
+        Cache<Object, Object> caffeineCache = cacheMap.get(namespace);
+        if(caffeineCache == null){
+            caffeineCache = registerCaffeine(namespace, CacheSpec.of(Math.max(1, unit.toSeconds(ttl))).withVariableExpiry());
+        }
+        CacheSpec spec = cacheSpecMap.get(namespace);
+        Policy.VarExpiration<Object, Object> varExpiration = caffeineCache.policy().expireVariably().orElse(null);
+        if(spec == null || varExpiration == null){
+            log.error("[caffeine]本地缓存命名空间未开启按条目过期！namespace=" + namespace + "，spec=" + spec);
+            throw new RuntimeException("本地缓存命名空间未开启按条目过期，namespace:" + namespace);
+        }
+
+        long ttlNanos = jitter(unit.toNanos(ttl), spec.getJitterRatio());
+        long now = System.nanoTime();
+        varExpiration.put(key, obj, ttlNanos, TimeUnit.NANOSECONDS);
+        explicitTtlCache.put(new RefreshKey(caffeineCache, key), new ExplicitTtl(ttlNanos, now + ttlNanos));
+        afterWrite(caffeineCache);
+        l2Put(namespace, caffeineCache, key, obj);
+        publishInvalidation(namespace, key);
+    }
+
+    /**
+     * 批量获取缓存、无则批量设值 - 动态缓存、命名空间
+     * <pre>
+     *     // 示例：列表页批量读取商品，未命中的id合并为一次查询
+     *     Map&lt;String, Product&gt; products = CaffeineCacheUtils.getAll("product", ids, 600, missIds -> productDao.mapByIds(missIds));
+     * </pre>
+     * @param namespace
+     * @param keys
+     * @param expireSecond
+     * @param batchLoader 入参为未命中的key集合，返回key对应的数据，未返回的key按空值缓存
+     * @param <R>
+     * @return 命中或加载成功的数据，不包含空值
+     */
+    public static <R> Map<String, R> getAll(String namespace, Collection<String> keys, long expireSecond, Function<Set<String>, Map<String, R>> batchLoader){
+        // 获取缓存
+        Cache<Object, Object> caffeineCache = loadCaffeine(namespace,expireSecond);
+
+        return getAllR4Set(namespace,caffeineCache,keys,batchLoader);
+    }
+
+    /**
+     * 批量缓存设值 - 动态缓存、命名空间
+     * @param namespace
+     * @param map
+     * @param expireSecond
+     */
+    public static void setAll(String namespace, Map<String, ?> map, long expireSecond) {
+        // 获取缓存
+        Cache<Object, Object> caffeineCache = loadCaffeine(namespace,expireSecond);
+        setAllR(namespace,caffeineCache,map);
     }
 
     /**
@@ -220,7 +637,7 @@ public class CaffeineCacheUtils {
     public static void del(String namespace,String key){
         Cache<Object, Object> caffeineCache = cacheMap.get(namespace);
         if(caffeineCache != null){
-            caffeineCache.invalidate(key);
+            delR(namespace,caffeineCache,key);
         }
     }
 
@@ -229,63 +646,1441 @@ public class CaffeineCacheUtils {
      * @param namespace
      */
     public static void del(String namespace){
-        cacheMap.remove(namespace);
+        removeNamespace(namespace);
+        publishInvalidation(namespace, null);
+        CacheL2Store store = l2Store;
+        if(store != null){
+            try {
+                store.clear(namespace);
+            } catch (Exception e) {
+                log.error("[caffeine][l2]二级缓存清空失败！namespace=" + namespace + "，" + LogUtils.getStackTraceAsString(e));
+            }
+        }
     }
 
     /**
-     * 加载Caffeine对象
+     * 按配置创建命名空间 - 动态缓存、命名空间
+     * <pre>
+     *     // 示例：商品详情缓存10分钟，最多占用约64MB
+     *     CaffeineCacheUtils.create("product", CaffeineCacheUtils.CacheSpec.of(600).withMaximumWeight(64 * 1024 * 1024));
+     * </pre>
+     * 已存在的命名空间沿用已有配置，配置不一致时输出告警
      * @param namespace
-     * @param expireSecond
-     * @return
+     * @param spec
      */
-    private static Cache<Object, Object> loadCaffeine(String namespace, long expireSecond){
-        Cache<Object, Object> caffeineCache = cacheMap.get(namespace);
-        if(caffeineCache == null){
-            caffeineCache = Caffeine.newBuilder()
-                    .maximumSize(LOCAL_CAFFEINE_MAXIMUM_SIZE)
-                    .expireAfterWrite(expireSecond, TimeUnit.SECONDS)
-                    .build();
-            cacheMap.put(namespace,caffeineCache);
-        }
-        return caffeineCache;
+    public static void create(String namespace, CacheSpec spec){
+        loadCaffeine(namespace, Objects.requireNonNull(spec), true);
     }
 
-    private static <R> R getR4Set(Cache<Object, Object> caffeineCache, String key, Supplier<R> supplier){
-        // 读取缓存
-        Object obj = caffeineCache.getIfPresent(key);
-        if (obj != null) {
-            // 空缓存判断
-            if(Objects.equals(obj,NULL_VALUE)){
-                return null;
-            }
-            return (R) obj;
+    /**
+     * 设置动态缓存命名空间最大数量，超过后创建新命名空间将抛出异常，防止namespace由业务key拼接导致内存泄漏
+     * @param max 最大数量
+     */
+    public static void setMaxNamespaces(int max){
+        if(max <= 0){
+            throw new IllegalArgumentException("命名空间最大数量必须大于0");
         }
+        maxNamespaces = max;
+    }
 
-        // DB操作
-        R result = supplier.get();
-        if (result != null) {
-            // 设置本地缓存
-            caffeineCache.put(key, result);
-        } else {
-            // 数据为空的时候，设置空值缓存
-            caffeineCache.put(key, NULL_VALUE);
+    /**
+     * 获取命名空间的缓存配置
+     * @param namespace
+     * @return 命名空间不存在时返回null
+     */
+    public static CacheSpec getSpec(String namespace){
+        return cacheSpecMap.get(namespace);
+    }
+
+    /**
+     * 设置异步刷新执行器
+     * @param executor
+     */
+    public static void setRefreshExecutor(Executor executor){
+        refreshExecutor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * 设置二级缓存
+     * <pre>
+     *     设置后本地缓存作为一级缓存：读取依次查询一级缓存、二级缓存、supplier，
+     *     写入和删除同时作用于两级缓存；二级缓存异常只记录日志，不影响一级缓存读写
+     *
+     *     CaffeineCacheUtils.setL2Store(new FileCacheL2Store(Paths.get("/data/cache")));
+     * </pre>
+     * @param store 为null时关闭二级缓存
+     */
+    public static void setL2Store(CacheL2Store store){
+        l2Store = store;
+    }
+
+    /**
+     * 设置失效广播总线
+     * <pre>
+     *     设置后set、del产生的失效消息合并成批发布到总线，同时订阅其他实例的失效消息并删除本地缓存，
+     *     多实例部署时可缩短脏数据时间而不必缩短过期时间
+     *
+     *     CaffeineCacheUtils.setInvalidationBus(new LocalCacheInvalidationBus());
+     * </pre>
+     * @param bus 为null时关闭广播
+     */
+    public static void setInvalidationBus(CacheInvalidationBus bus){
+        setInvalidationBus(bus, DEF_INVALIDATION_BATCH_SIZE, DEF_INVALIDATION_LINGER_MILLIS);
+    }
+
+    /**
+     * 设置失效广播总线，每次设置生成新的实例标识
+     * @param bus 为null时关闭广播
+     * @param batchSize 每批最大消息数量
+     * @param lingerMillis 消息最长等待合并时间，单位：毫秒
+     */
+    public static void setInvalidationBus(CacheInvalidationBus bus, int batchSize, long lingerMillis){
+        setInvalidationBus(bus, batchSize, lingerMillis, UUID.randomUUID().toString());
+    }
+
+    /**
+     * 设置失效广播总线
+     * <pre>
+     *     实例标识随本次注册生效，本实例发布的消息带有该标识，订阅到相同标识的消息时忽略；
+     *     同一总线上的每个实例需使用不同的标识，如：主机名 + 端口
+     * </pre>
+     * @param bus 为null时关闭广播
+     * @param batchSize 每批最大消息数量
+     * @param lingerMillis 消息最长等待合并时间，单位：毫秒
+     * @param instanceId 实例标识
+     */
+    public static synchronized void setInvalidationBus(CacheInvalidationBus bus, int batchSize, long lingerMillis, String instanceId){
+        if(invalidationBus != null){
+            invalidationBus.unsubscribe(INVALIDATION_LISTENER);
+            invalidationPublisher.close();
+            invalidationBus = null;
+            invalidationPublisher = null;
         }
-        return result;
+        if(bus == null){
+            return;
+        }
+
+        BatchingInvalidationPublisher publisher = new BatchingInvalidationPublisher(bus, Objects.requireNonNull(instanceId), batchSize, lingerMillis,
+                ThreadPoolUtils.newScheduledThreadPool(INVALIDATION_BIZ_NAME, 1));
+        invalidationBus = bus;
+        invalidationPublisher = publisher;
+        bus.subscribe(INVALIDATION_LISTENER);
     }
 
-    private static <R> R getR(String key, Cache<Object, Object> caffeineCache) {
-        if(caffeineCache != null){
-            Object obj = caffeineCache.getIfPresent(key);
-            if(obj == null){
-                return null;
-            }
-            // 空缓存判断
-            if(Objects.equals(obj,NULL_VALUE)){
-                return null;
-            }
-            return (R) obj;
+    /**
+     * 设置对象内存占用估算器，用于按权重淘汰的命名空间
+     * @param estimator
+     */
+    public static void setSizeEstimator(SizeEstimator estimator){
+        sizeEstimator = Objects.requireNonNull(estimator);
+    }
+
+    /**
+     * 设置动态缓存全局内存预算
+     * <pre>
+     *     设置后新创建的命名空间均按估算字节数计算权重，所有按权重淘汰的命名空间共享该预算，
+     *     累计写入每满64条检测一次，估算总量超出时从占用最大的命名空间淘汰最冷的数据；固定时间缓存不计入
+     * </pre>
+     * @param maximumWeight 单位：字节，0表示不限制
+     */
+    public static void setGlobalMaximumWeight(long maximumWeight){
+        if(maximumWeight < 0){
+            throw new IllegalArgumentException("全局内存预算不能小于0");
+        }
+        globalMaximumWeight = maximumWeight;
+    }
+
+    /**
+     * 获取所有缓存的统计快照，包括固定时间缓存和全部命名空间
+     * <pre>
+     *     CaffeineCacheUtils.stats().forEach((namespace, snapshot) ->
+     *         System.out.println(namespace + " 命中率：" + snapshot.getStats().hitRate()));
+     * </pre>
+     * @return key=命名空间，固定时间缓存见FIXED_4_MINUTES、FIXED_4_HOURS、FIXED_4_DAYS
+     */
+    public static Map<String, CacheStatsSnapshot> stats(){
+        Map<String, CacheStatsSnapshot> snapshots = new LinkedHashMap<>();
+        snapshots.put(FIXED_4_MINUTES, snapshot(FIXED_4_MINUTES, fixed4MinutesCache, fixed4MinutesCache.stats()));
+        snapshots.put(FIXED_4_HOURS, snapshot(FIXED_4_HOURS, fixed4HourCache, fixed4HourCache.stats()));
+        snapshots.put(FIXED_4_DAYS, snapshot(FIXED_4_DAYS, fixed4DayCache, fixed4DayCache.stats()));
+        cacheMap.forEach((namespace, cache) -> snapshots.put(namespace, snapshot(namespace, cache, cache.stats())));
+        return snapshots;
+    }
+
+    /**
+     * 获取命名空间的统计快照
+     * @param namespace
+     * @return 命名空间不存在时返回null
+     */
+    public static CacheStatsSnapshot stats(String namespace){
+        return stats().get(namespace);
+    }
+
+    /**
+     * 启动统计定时上报，每个周期上报各命名空间与上一周期相比的增量统计；重复启动会替换之前的上报任务
+     * <pre>
+     *     CaffeineCacheUtils.startStatsReporter(CaffeineCacheUtils.LOG_STATS_REPORTER, 1, TimeUnit.MINUTES);
+     * </pre>
+     * @param reporter 上报实现，如：日志、监控指标
+     * @param period 上报周期
+     * @param unit 上报周期单位
+     */
+    public static synchronized void startStatsReporter(StatsReporter reporter, long period, TimeUnit unit){
+        Objects.requireNonNull(reporter);
+        stopStatsReporter();
+
+        Map<String, CacheStats> last = new HashMap<>();
+        statsReportFuture = ThreadPoolUtils.newScheduledThreadPool(STATS_REPORTER_BIZ_NAME, 1).scheduleAtFixedRate(() -> {
+            try {
+                Map<String, CacheStatsSnapshot> current = stats();
+                List<CacheStatsSnapshot> deltas = new ArrayList<>(current.size());
+                current.forEach((namespace, snapshot) -> {
+                    CacheStats previous = last.get(namespace);
+                    CacheStats delta = previous != null ? snapshot.getStats().minus(previous) : snapshot.getStats();
+                    deltas.add(new CacheStatsSnapshot(namespace, snapshot.getEstimatedSize(), snapshot.getWeightedSize(), delta));
+                    last.put(namespace, snapshot.getStats());
+                });
+                // 已删除的命名空间不再保留
+                last.keySet().retainAll(current.keySet());
+                reporter.report(deltas);
+            } catch (Exception e) {
+                log.error("[caffeine][stats]缓存统计上报失败！" + LogUtils.getStackTraceAsString(e));
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * 停止统计定时上报
+     */
+    public static synchronized void stopStatsReporter(){
+        if(statsReportFuture != null){
+            statsReportFuture.cancel(false);
+            statsReportFuture = null;
+        }
+    }
+
+    /**
+     * 导出缓存快照
+     * <pre>
+     *     按访问频率从高到低导出最多limit条数据及其剩余过期时间，用于重启后预热
+     *
+     *     // 示例：停机前导出，启动后加载
+     *     CaffeineCacheUtils.exportSnapshot("product", Paths.get("/data/snapshot/product.bin"), 100_0000);
+     *     CaffeineCacheUtils.importSnapshotAsync("product", Paths.get("/data/snapshot/product.bin"));
+     * </pre>
+     * @param namespace 命名空间，固定时间缓存见FIXED_4_MINUTES、FIXED_4_HOURS、FIXED_4_DAYS
+     * @param file 快照文件
+     * @param limit 最大导出数量
+     * @return 导出数量
+     */
+    public static int exportSnapshot(String namespace, Path file, int limit){
+        return exportSnapshot(namespace, file, limit, CacheSerializer.JDK);
+    }
+
+    /**
+     * 导出缓存快照
+     * @param namespace 命名空间，固定时间缓存见FIXED_4_MINUTES、FIXED_4_HOURS、FIXED_4_DAYS
+     * @param file 快照文件
+     * @param limit 最大导出数量
+     * @param serializer 缓存值序列化
+     * @return 导出数量
+     */
+    public static int exportSnapshot(String namespace, Path file, int limit, CacheSerializer serializer){
+        Cache<Object, Object> caffeineCache = requireLocalCache(namespace);
+        Policy<Object, Object> policy = caffeineCache.policy();
+        Map<Object, Object> hottest = policy.eviction().get().hottest(limit);
+
+        long now = System.currentTimeMillis();
+        List<CacheSnapshot.Entry> entries = new ArrayList<>(hottest.size());
+        hottest.forEach((k, v) -> {
+            if(!(k instanceof String)){
+                return;
+            }
+            long remaining = remainingMillis(policy, k);
+            if(remaining > 0){
+                entries.add(new CacheSnapshot.Entry((String) k, v, now + remaining));
+            }
+        });
+
+        int count = CacheSnapshot.write(file, entries, serializer);
+        log.info("[caffeine][snapshot]导出缓存快照！namespace=" + namespace + "，count=" + count + "，file=" + file);
+        return count;
+    }
+
+    /**
+     * 加载缓存快照，多线程并行反序列化，已过期的数据会被跳过
+     * <pre>
+     *     命名空间需已创建；按条目过期的命名空间保留导出时的剩余过期时间，
+     *     固定过期时间的命名空间只能按其过期时间重新计时，剩余过期时间不足一半的数据不加载
+     * </pre>
+     * @param namespace 命名空间，固定时间缓存见FIXED_4_MINUTES、FIXED_4_HOURS、FIXED_4_DAYS
+     * @param file 快照文件
+     * @return 加载数量
+     */
+    public static int importSnapshot(String namespace, Path file){
+        return importSnapshot(namespace, file, CacheSerializer.JDK);
+    }
+
+    /**
+     * 加载缓存快照
+     * @param namespace 命名空间，固定时间缓存见FIXED_4_MINUTES、FIXED_4_HOURS、FIXED_4_DAYS
+     * @param file 快照文件
+     * @param serializer 缓存值序列化
+     * @return 实际写入数量，不含已过期、剩余时间不足及已存在的数据
+     */
+    public static int importSnapshot(String namespace, Path file, CacheSerializer serializer){
+        Cache<Object, Object> caffeineCache = requireLocalCache(namespace);
+        Policy<Object, Object> policy = caffeineCache.policy();
+        Policy.VarExpiration<Object, Object> varExpiration = policy.expireVariably().orElse(null);
+        long minRemainingMillis = policy.expireAfterWrite()
+                .map(expiration -> (long) (expiration.getExpiresAfter(TimeUnit.MILLISECONDS) * SNAPSHOT_MIN_REMAINING_RATIO))
+                .orElse(0L);
+
+        int count = CacheSnapshot.read(file, serializer, entry -> {
+            long remaining = entry.getExpireAt() > 0 ? entry.getExpireAt() - System.currentTimeMillis() : Long.MAX_VALUE;
+            // 已存在的数据比快照更新，不覆盖
+            if(varExpiration != null){
+                return remaining > 0 && varExpiration.putIfAbsent(entry.getKey(), entry.getValue(), remaining, TimeUnit.MILLISECONDS);
+            }
+            // 固定过期时间重新计时，只加载剩余时间足够的数据
+            if(remaining < minRemainingMillis){
+                return false;
+            }
+            return caffeineCache.asMap().putIfAbsent(entry.getKey(), entry.getValue()) == null;
+        }, true);
+        afterWrite(caffeineCache, count);
+
+        log.info("[caffeine][snapshot]加载缓存快照！namespace=" + namespace + "，count=" + count + "，file=" + file);
+        return count;
+    }
+
+    /**
+     * 后台加载缓存快照，不阻塞启动，加载期间未命中的请求按正常流程回源
+     * @param namespace 命名空间，固定时间缓存见FIXED_4_MINUTES、FIXED_4_HOURS、FIXED_4_DAYS
+     * @param file 快照文件
+     * @return 加载数量
+     */
+    public static CompletableFuture<Integer> importSnapshotAsync(String namespace, Path file){
+        return importSnapshotAsync(namespace, file, CacheSerializer.JDK);
+    }
+
+    /**
+     * 后台加载缓存快照
+     * @param namespace 命名空间，固定时间缓存见FIXED_4_MINUTES、FIXED_4_HOURS、FIXED_4_DAYS
+     * @param file 快照文件
+     * @param serializer 缓存值序列化
+     * @return 加载数量
+     */
+    public static CompletableFuture<Integer> importSnapshotAsync(String namespace, Path file, CacheSerializer serializer){
+        return CompletableFuture.supplyAsync(() -> importSnapshot(namespace, file, serializer), refreshExecutor);
+    }
+
+    /**
+     * 加载Caffeine对象
+     * @param namespace
+     * @param expireSecond
+     * @return
+     */
+    private static Cache<Object, Object> loadCaffeine(String namespace, long expireSecond){
+        return loadCaffeine(namespace, CacheSpec.of(expireSecond), false);
+    }
+
+    /**
+     * 加载Caffeine对象
+     * <pre>
+     *     命名空间首次创建时原子注册，并发调用只会创建一个缓存实例；
+     *     已存在的命名空间沿用首次创建时的配置，配置不一致时输出告警，同一冲突配置只告警一次
+     * </pre>
+     * @param namespace
+     * @param spec
+     * @param strict true=比较完整配置，false=仅比较过期时间
+     * @return
+     */
+    private static Cache<Object, Object> loadCaffeine(String namespace, CacheSpec spec, boolean strict){
+        Cache<Object, Object> caffeineCache = cacheMap.get(namespace);
+        if(caffeineCache == null){
+            caffeineCache = registerCaffeine(namespace, spec);
+        }
+
+        CacheSpec existSpec = cacheSpecMap.get(namespace);
+        boolean conflict = existSpec != null
+                && (strict ? !existSpec.equals(spec) : existSpec.getExpireSecond() != spec.getExpireSecond());
+        if(conflict && conflictSpecMap.computeIfAbsent(namespace, k -> ConcurrentHashMap.newKeySet()).add(spec)){
+            log.warn("[caffeine]本地缓存命名空间配置冲突，沿用已有配置！namespace=" + namespace + "，已有配置=" + existSpec + "，本次配置=" + spec);
+        }
+        return caffeineCache;
+    }
+
+    /**
+     * 原子注册命名空间，已存在时返回已有缓存，固定时间缓存的保留名称不能注册
+     * @param namespace
+     * @param spec
+     * @return
+     */
+    private static Cache<Object, Object> registerCaffeine(String namespace, CacheSpec spec){
+        if(isReservedNamespace(namespace)){
+            log.error("[caffeine]本地缓存命名空间为保留名称！namespace=" + namespace);
+            throw new IllegalArgumentException("本地缓存命名空间为固定时间缓存的保留名称，namespace:" + namespace);
+        }
+        return cacheMap.computeIfAbsent(namespace, k -> {
+            if(cacheMap.size() >= maxNamespaces){
+                log.error("[caffeine]本地缓存命名空间数量超限，已达上限值：" + maxNamespaces + "，namespace：" + k);
+                throw new RuntimeException("本地缓存命名空间数量超限，已达上限值：" + maxNamespaces + "，namespace:" + k);
+            }
+            cacheSpecMap.put(k, spec);
+            log.info("[caffeine]创建本地缓存命名空间！namespace=" + k + "，spec=" + spec);
+            return buildCaffeine(spec);
+        });
+    }
+
+    /**
+     * 是否为固定时间缓存的保留名称
+     * @param namespace
+     * @return
+     */
+    private static boolean isReservedNamespace(String namespace){
+        return FIXED_4_MINUTES.equals(namespace) || FIXED_4_HOURS.equals(namespace) || FIXED_4_DAYS.equals(namespace);
+    }
+
+    /**
+     * 按配置构建Caffeine对象
+     * @param spec
+     * @return
+     */
+    private static Cache<Object, Object> buildCaffeine(CacheSpec spec){
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if(spec.isVariableExpiry()){
+            builder = builder.expireAfter(new VariableExpiry(TimeUnit.SECONDS.toNanos(spec.getExpireSecond()), spec.getJitterRatio()));
+        } else {
+            builder = builder.expireAfterWrite(spec.getExpireSecond(), TimeUnit.SECONDS);
+        }
+
+        // 按估算字节数淘汰：命名空间自身预算优先，未配置时使用全局预算
+        long maximumWeight = spec.getMaximumWeight() > 0 ? spec.getMaximumWeight() : globalMaximumWeight;
+        if(maximumWeight > 0){
+            return builder.maximumWeight(maximumWeight)
+                    .weigher((Object k, Object v) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, sizeEstimator.estimate(k) + sizeEstimator.estimate(v))))
+                    .build();
+        }
+        return builder.maximumSize(LOCAL_CAFFEINE_MAXIMUM_SIZE).build();
+    }
+
+    /**
+     * 写入后检测全局内存预算
+     * @param caffeineCache
+     */
+    private static void afterWrite(Cache<Object, Object> caffeineCache){
+        afterWrite(caffeineCache, 1);
+    }
+
+    /**
+     * 写入后检测全局内存预算，累计写入每跨过一个检测间隔检测一次
+     * @param caffeineCache
+     * @param writes 本次写入数量
+     */
+    private static void afterWrite(Cache<Object, Object> caffeineCache, int writes){
+        if(globalMaximumWeight > 0 && writes > 0 && isWeighted(caffeineCache)){
+            long before = globalWriteCount.getAndAdd(writes);
+            if(before / GLOBAL_CHECK_INTERVAL != (before + writes) / GLOBAL_CHECK_INTERVAL){
+                checkGlobalWeight();
+            }
+        }
+    }
+
+    /**
+     * 估算总量超出全局内存预算时，从占用最大的命名空间淘汰最冷的数据，直至回到预算内
+     */
+    private static void checkGlobalWeight(){
+        long budget = globalMaximumWeight;
+        if(budget <= 0 || !globalEvictLock.tryLock()){
+            return;
+        }
+        try {
+            long total = totalWeightedSize();
+            while (total > budget){
+                Cache<Object, Object> largest = null;
+                long largestSize = 0;
+                for(Cache<Object, Object> cache : cacheMap.values()){
+                    long size = weightedSize(cache);
+                    if(size > largestSize){
+                        largest = cache;
+                        largestSize = size;
+                    }
+                }
+                if(largest == null){
+                    return;
+                }
+                Map<Object, Object> coldest = largest.policy().eviction().get().coldest(GLOBAL_EVICT_BATCH);
+                if(coldest.isEmpty()){
+                    return;
+                }
+                largest.invalidateAll(coldest.keySet());
+                largest.cleanUp();
+                total = totalWeightedSize();
+            }
+        } finally {
+            globalEvictLock.unlock();
+        }
+    }
+
+    /**
+     * 按权重淘汰的命名空间估算字节数总和
+     * @return
+     */
+    private static long totalWeightedSize(){
+        long total = 0;
+        for(Cache<Object, Object> cache : cacheMap.values()){
+            total += weightedSize(cache);
+        }
+        return total;
+    }
+
+    private static long weightedSize(Cache<Object, Object> caffeineCache){
+        return caffeineCache.policy().eviction()
+                .filter(Policy.Eviction::isWeighted)
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private static CacheStatsSnapshot snapshot(String namespace, Cache<Object, Object> caffeineCache, CacheStats stats){
+        return new CacheStatsSnapshot(namespace, caffeineCache.estimatedSize(), weightedSize(caffeineCache), stats);
+    }
+
+    private static boolean isWeighted(Cache<Object, Object> caffeineCache){
+        return caffeineCache.policy().eviction().map(Policy.Eviction::isWeighted).orElse(false);
+    }
+
+    /**
+     * 默认对象内存占用估算，按常见类型粗略估算字节数，集合类按元素递归估算，
+     * 普通对象按缓存的类结构计算自身大小并递归估算引用的字段
+     * @param obj
+     * @return
+     */
+    private static long estimateSize(Object obj){
+        return estimateSize(obj, 0);
+    }
+
+    private static long estimateSize(Object obj, int depth){
+        if(obj == null){
+            return 0;
+        }
+        if(obj instanceof CharSequence){
+            return 40 + 2L * ((CharSequence) obj).length();
+        }
+        if(obj instanceof Number || obj instanceof Boolean || obj instanceof Character){
+            return 16;
+        }
+        if(obj instanceof byte[]){
+            return 16 + ((byte[]) obj).length;
+        }
+        // 递归层级过深时按固定大小估算，避免估算本身过于耗时
+        if(depth >= ESTIMATE_MAX_DEPTH){
+            return 64;
+        }
+        if(obj instanceof Collection){
+            long size = 40;
+            for(Object item : (Collection<?>) obj){
+                size += 8 + estimateSize(item, depth + 1);
+            }
+            return size;
+        }
+        if(obj instanceof Map){
+            long size = 48;
+            for(Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()){
+                size += 32 + estimateSize(entry.getKey(), depth + 1) + estimateSize(entry.getValue(), depth + 1);
+            }
+            return size;
+        }
+        if(obj.getClass().isArray()){
+            int length = Array.getLength(obj);
+            if(obj.getClass().getComponentType().isPrimitive()){
+                return 16 + 8L * length;
+            }
+            long size = 16;
+            for(int i = 0; i < length; i++){
+                size += 8 + estimateSize(Array.get(obj, i), depth + 1);
+            }
+            return size;
+        }
+        // 普通对象：自身大小加引用字段递归估算
+        ClassLayout layout = classLayoutMap.computeIfAbsent(obj.getClass(), ClassLayout::new);
+        long size = layout.shallowSize;
+        for(Field field : layout.referenceFields){
+            try {
+                size += estimateSize(field.get(obj), depth + 1);
+            } catch (IllegalAccessException e) {
+                // 无法访问的字段只计入引用本身
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 获取缓存、无则设值
+     * <pre>
+     *     通过Cache.get(key, mappingFunction)原子加载，同一key并发未命中时只有一个线程执行supplier，
+     *     其余线程等待该次加载结果，避免热点key过期瞬间的缓存击穿；
+     *     开启二级缓存时，由loadingMap合并同一key的并发未命中，只有一个线程读取二级缓存，
+     *     二级缓存的读写在原子加载之外执行，慢速存储不会长时间占用缓存的桶锁
+     * </pre>
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     * @param supplier
+     * @param <R>
+     * @return
+     */
+    private static <R> R getR4Set(String namespace, Cache<Object, Object> caffeineCache, String key, Supplier<R> supplier){
+        Object obj = caffeineCache.getIfPresent(key);
+        if(obj == null){
+            obj = l2Store == null ? load(namespace, caffeineCache, key, null, supplier)
+                    : loadWithL2(namespace, caffeineCache, key, supplier);
+        }
+
+        // 空缓存判断
+        if(Objects.equals(obj,NULL_VALUE)){
+            return null;
+        }
+        return (R) obj;
+    }
+
+    /**
+     * 开启二级缓存时的加载：同一key只有一个线程读取二级缓存并加载，其余线程等待其结果
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     * @param supplier
+     * @param <R>
+     * @return
+     */
+    private static <R> Object loadWithL2(String namespace, Cache<Object, Object> caffeineCache, String key, Supplier<R> supplier){
+        RefreshKey loadingKey = new RefreshKey(caffeineCache, key);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loadingMap.putIfAbsent(loadingKey, future);
+        if(existing != null){
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if(cause instanceof RuntimeException){
+                    throw (RuntimeException) cause;
+                }
+                if(cause instanceof Error){
+                    throw (Error) cause;
+                }
+                throw new RuntimeException("本地缓存加载失败！namespace=" + namespace + "，key=" + key, cause);
+            }
+        }
+        try {
+            // 上一个加载线程可能刚完成
+            Object obj = caffeineCache.getIfPresent(key);
+            if(obj == null){
+                // 二级缓存
+                obj = load(namespace, caffeineCache, key, l2Get(namespace, key), supplier);
+            }
+            future.complete(obj);
+            return obj;
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            loadingMap.remove(loadingKey, future);
+        }
+    }
+
+    /**
+     * 原子加载：二级缓存有值时使用二级缓存的值，否则执行supplier并写入二级缓存
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     * @param l2Value 二级缓存的值，可为null
+     * @param supplier
+     * @param <R>
+     * @return
+     */
+    private static <R> Object load(String namespace, Cache<Object, Object> caffeineCache, String key, Object l2Value, Supplier<R> supplier){
+        boolean[] loaded = new boolean[1];
+        boolean[] fromSupplier = new boolean[1];
+        Object obj = caffeineCache.get(key, k -> {
+            loaded[0] = true;
+            if(l2Value != null){
+                return l2Value;
+            }
+
+            // DB操作
+            fromSupplier[0] = true;
+            R result = supplier.get();
+            // 数据为空的时候，设置空值缓存
+            return result != null ? result : NULL_VALUE;
+        });
+        if(loaded[0]){
+            afterWrite(caffeineCache);
+        }
+        if(fromSupplier[0]){
+            l2Put(namespace, caffeineCache, key, obj);
+        }
+        return obj;
+    }
+
+    /**
+     * 批量获取缓存、无则批量设值
+     * @param namespace
+     * @param caffeineCache
+     * @param keys
+     * @param batchLoader
+     * @param <R>
+     * @return
+     */
+    private static <R> Map<String, R> getAllR4Set(String namespace, Cache<Object, Object> caffeineCache, Collection<String> keys, Function<Set<String>, Map<String, R>> batchLoader){
+        int[] loaded = new int[1];
+        Map<Object, Object> cached = caffeineCache.getAll(keys, missing -> {
+            Set<String> missingKeys = new LinkedHashSet<>();
+            for(Object k : missing){
+                missingKeys.add((String) k);
+            }
+            loaded[0] = missingKeys.size();
+
+            // 二级缓存
+            Map<Object, Object> values = new HashMap<>(missingKeys.size() * 4 / 3 + 1);
+            Map<String, Object> l2Values = l2GetAll(namespace, missingKeys);
+            values.putAll(l2Values);
+            missingKeys.removeAll(l2Values.keySet());
+            if(missingKeys.isEmpty()){
+                return values;
+            }
+
+            // DB操作
+            Map<String, R> result = batchLoader.apply(missingKeys);
+            Map<String, Object> loadedValues = new HashMap<>(missingKeys.size() * 4 / 3 + 1);
+            for(String k : missingKeys){
+                R value = result != null ? result.get(k) : null;
+                // 数据为空的时候，设置空值缓存
+                loadedValues.put(k, value != null ? value : NULL_VALUE);
+            }
+            l2PutAll(namespace, caffeineCache, loadedValues);
+            values.putAll(loadedValues);
+            return values;
+        });
+        afterWrite(caffeineCache, loaded[0]);
+
+        Map<String, R> result = new LinkedHashMap<>(cached.size() * 4 / 3 + 1);
+        cached.forEach((k, v) -> {
+            // 空缓存判断
+            if(!Objects.equals(v,NULL_VALUE)){
+                result.put((String) k, (R) v);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取缓存、无则设值、超过刷新时间异步刷新
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     * @param expireMillis 过期时间，单位：毫秒；按条目过期时为命名空间默认过期时间
+     * @param refreshMillis 刷新时间，单位：毫秒
+     * @param supplier
+     * @param <R>
+     * @return
+     */
+    private static <R> R getR4Refresh(String namespace, Cache<Object, Object> caffeineCache, String key, long expireMillis, long refreshMillis, Supplier<R> supplier){
+        Object obj = caffeineCache.getIfPresent(key);
+        if(obj == null){
+            return getR4Set(namespace,caffeineCache,key,supplier);
+        }
+
+        long explicitTtlNanos = explicitTtlNanos(caffeineCache,key);
+        if(needRefresh(caffeineCache,key,expireMillis,explicitTtlNanos,refreshMillis)){
+            refreshAsync(namespace,caffeineCache,key,obj,explicitTtlNanos,supplier);
+        }
+
+        // 空缓存判断
+        if(Objects.equals(obj,NULL_VALUE)){
+            return null;
+        }
+        return (R) obj;
+    }
+
+    /**
+     * 是否达到刷新时间
+     * <pre>
+     *     固定过期时间的命名空间按写入时长判断；
+     *     按条目过期的命名空间没有写入时长，按 过期时间 - 剩余过期时间 推算，按条目指定过期时间写入的key以写入时的过期时间推算
+     * </pre>
+     * @param caffeineCache
+     * @param key
+     * @param expireMillis
+     * @param explicitTtlNanos 按条目指定的过期时间，单位：纳秒；0表示命名空间默认过期时间
+     * @param refreshMillis
+     * @return
+     */
+    private static boolean needRefresh(Cache<Object, Object> caffeineCache, String key, long expireMillis, long explicitTtlNanos, long refreshMillis){
+        Policy<Object, Object> policy = caffeineCache.policy();
+        OptionalLong age = OptionalLong.empty();
+        if(policy.expireAfterWrite().isPresent()){
+            age = policy.expireAfterWrite().get().ageOf(key, TimeUnit.MILLISECONDS);
+        } else if(policy.expireVariably().isPresent()){
+            OptionalLong remaining = policy.expireVariably().get().getExpiresAfter(key, TimeUnit.MILLISECONDS);
+            if(remaining.isPresent()){
+                long ttlMillis = explicitTtlNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(explicitTtlNanos) : expireMillis;
+                age = OptionalLong.of(ttlMillis - remaining.getAsLong());
+            }
+        }
+        return age.isPresent() && age.getAsLong() >= refreshMillis;
+    }
+
+    /**
+     * 异步刷新，同一key同时只有一个刷新任务；
+     * 刷新结果仅在缓存值未被修改时写入，避免覆盖期间的set/del
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     * @param oldValue
+     * @param supplier
+     * @param <R>
+     */
+    /**
+     * 按条目指定的过期时间
+     * <pre>
+     *     标记的过期时刻与缓存条目的过期时刻不一致时，说明条目已被按默认过期时间覆盖，标记失效
+     * </pre>
+     * @param caffeineCache
+     * @param key
+     * @return 单位：纳秒；0表示命名空间默认过期时间
+     */
+    private static long explicitTtlNanos(Cache<Object, Object> caffeineCache, String key){
+        Policy.VarExpiration<Object, Object> varExpiration = caffeineCache.policy().expireVariably().orElse(null);
+        if(varExpiration == null){
+            return 0;
+        }
+        ExplicitTtl explicitTtl = (ExplicitTtl) explicitTtlCache.getIfPresent(new RefreshKey(caffeineCache, key));
+        if(explicitTtl == null){
+            return 0;
+        }
+        OptionalLong remaining = varExpiration.getExpiresAfter(key, TimeUnit.NANOSECONDS);
+        if(!remaining.isPresent()){
+            return 0;
+        }
+        long drift = Math.abs(System.nanoTime() + remaining.getAsLong() - explicitTtl.expireAtNanos);
+        return drift <= TimeUnit.MILLISECONDS.toNanos(EXPLICIT_TTL_TOLERANCE_MILLIS) ? explicitTtl.ttlNanos : 0;
+    }
+
+    /**
+     * 异步刷新，按条目指定过期时间写入的key写回时沿用原过期时间
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     * @param oldValue
+     * @param explicitTtlNanos 按条目指定的过期时间，单位：纳秒；0表示命名空间默认过期时间
+     * @param supplier
+     * @param <R>
+     */
+    private static <R> void refreshAsync(String namespace, Cache<Object, Object> caffeineCache, String key, Object oldValue, long explicitTtlNanos, Supplier<R> supplier){
+        RefreshKey refreshKey = new RefreshKey(caffeineCache,key);
+        if(!refreshingKeys.add(refreshKey)){
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    R result = supplier.get();
+                    Object value = result != null ? result : NULL_VALUE;
+                    if(caffeineCache.asMap().replace(key, oldValue, value)){
+                        if(explicitTtlNanos > 0){
+                            long now = System.nanoTime();
+                            caffeineCache.policy().expireVariably().get().setExpiresAfter(key, explicitTtlNanos, TimeUnit.NANOSECONDS);
+                            explicitTtlCache.put(new RefreshKey(caffeineCache, key), new ExplicitTtl(explicitTtlNanos, now + explicitTtlNanos));
+                        }
+                        afterWrite(caffeineCache);
+                        l2Put(namespace, caffeineCache, key, value);
+                    }
+                } catch (Exception e) {
+                    log.error("[caffeine]缓存异步刷新失败！key=" + key + "，" + LogUtils.getStackTraceAsString(e));
+                } finally {
+                    refreshingKeys.remove(refreshKey);
+                }
+            });
+        } catch (Exception e) {
+            refreshingKeys.remove(refreshKey);
+            log.error("[caffeine]缓存异步刷新任务提交失败！key=" + key + "，" + LogUtils.getStackTraceAsString(e));
+        }
+    }
+
+    /**
+     * 固定时间缓存的刷新时间
+     * @param unit 过期时间单位（过期时长为1）
+     * @return 单位：毫秒
+     */
+    private static long fixedRefreshMillis(TimeUnit unit){
+        return (long) (unit.toMillis(1) * FIXED_REFRESH_RATIO);
+    }
+
+    private static <R> R getR(String namespace, String key, Cache<Object, Object> caffeineCache) {
+        if(caffeineCache != null){
+            Object obj = caffeineCache.getIfPresent(key);
+            if(obj == null){
+                // 二级缓存
+                obj = l2Get(namespace, key);
+                if(obj == null){
+                    return null;
+                }
+                caffeineCache.put(key, obj);
+                afterWrite(caffeineCache);
+            }
+            // 空缓存判断
+            if(Objects.equals(obj,NULL_VALUE)){
+                return null;
+            }
+            return (R) obj;
+        }
+        return null;
+    }
+
+    /**
+     * 缓存设值，同时写入二级缓存
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     * @param obj
+     */
+    private static void setR(String namespace, Cache<Object, Object> caffeineCache, String key, Object obj){
+        caffeineCache.put(key, obj);
+        afterWrite(caffeineCache);
+        l2Put(namespace, caffeineCache, key, obj);
+        publishInvalidation(namespace, key);
+    }
+
+    /**
+     * 批量缓存设值，同时写入二级缓存
+     * @param namespace
+     * @param caffeineCache
+     * @param map
+     */
+    private static void setAllR(String namespace, Cache<Object, Object> caffeineCache, Map<String, ?> map){
+        caffeineCache.putAll(map);
+        afterWrite(caffeineCache, map.size());
+        l2PutAll(namespace, caffeineCache, map);
+        for(String key : map.keySet()){
+            publishInvalidation(namespace, key);
+        }
+    }
+
+    /**
+     * 删除缓存，同时删除二级缓存
+     * @param namespace
+     * @param caffeineCache
+     * @param key
+     */
+    private static void delR(String namespace, Cache<Object, Object> caffeineCache, String key){
+        caffeineCache.invalidate(key);
+        CacheL2Store store = l2Store;
+        if(store != null){
+            try {
+                store.remove(namespace, key);
+            } catch (Exception e) {
+                log.error("[caffeine][l2]二级缓存删除失败！namespace=" + namespace + "，key=" + key + "，" + LogUtils.getStackTraceAsString(e));
+            }
+        }
+        publishInvalidation(namespace, key);
+    }
+
+    /**
+     * 删除命名空间及其配置
+     * @param namespace
+     */
+    private static void removeNamespace(String namespace){
+        cacheMap.computeIfPresent(namespace, (k, v) -> {
+            cacheSpecMap.remove(k);
+            conflictSpecMap.remove(k);
+            return null;
+        });
+    }
+
+    /**
+     * 发布失效消息
+     * @param namespace
+     * @param key 为null时表示整个命名空间失效
+     */
+    private static void publishInvalidation(String namespace, String key){
+        BatchingInvalidationPublisher publisher = invalidationPublisher;
+        if(publisher != null){
+            publisher.publish(namespace, key);
+        }
+    }
+
+    /**
+     * 处理其他实例的失效消息，只删除本地一级缓存，二级缓存已由发布方处理
+     * @param invalidations
+     */
+    private static void applyInvalidations(List<CacheInvalidation> invalidations){
+        BatchingInvalidationPublisher publisher = invalidationPublisher;
+        for(CacheInvalidation invalidation : invalidations){
+            if(publisher != null && publisher.isOwn(invalidation)){
+                continue;
+            }
+
+            String namespace = invalidation.getNamespace();
+            Cache<Object, Object> caffeineCache = localCache(namespace);
+            if(invalidation.getKey() != null){
+                if(caffeineCache != null){
+                    caffeineCache.invalidate(invalidation.getKey());
+                }
+            } else if(cacheMap.containsKey(namespace)){
+                removeNamespace(namespace);
+            } else if(caffeineCache != null){
+                caffeineCache.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * 按名称获取本地缓存，不存在时抛出异常
+     * @param namespace
+     * @return
+     */
+    private static Cache<Object, Object> requireLocalCache(String namespace){
+        Cache<Object, Object> caffeineCache = localCache(namespace);
+        if(caffeineCache == null){
+            log.error("[caffeine]本地缓存命名空间不存在！namespace=" + namespace);
+            throw new RuntimeException("本地缓存命名空间不存在，namespace:" + namespace);
+        }
+        return caffeineCache;
+    }
+
+    /**
+     * 数据剩余过期时间
+     * @param policy
+     * @param key
+     * @return 单位：毫秒，数据不存在或已过期时返回0
+     */
+    private static long remainingMillis(Policy<Object, Object> policy, Object key){
+        if(policy.expireVariably().isPresent()){
+            return policy.expireVariably().get().getExpiresAfter(key, TimeUnit.MILLISECONDS).orElse(0);
+        }
+        if(policy.expireAfterWrite().isPresent()){
+            Policy.Expiration<Object, Object> expiration = policy.expireAfterWrite().get();
+            OptionalLong age = expiration.ageOf(key, TimeUnit.MILLISECONDS);
+            return age.isPresent() ? expiration.getExpiresAfter(TimeUnit.MILLISECONDS) - age.getAsLong() : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * 按名称获取本地缓存，包括固定时间缓存
+     * @param namespace
+     * @return 不存在时返回null
+     */
+    private static Cache<Object, Object> localCache(String namespace){
+        switch (namespace){
+            case FIXED_4_MINUTES:
+                return fixed4MinutesCache;
+            case FIXED_4_HOURS:
+                return fixed4HourCache;
+            case FIXED_4_DAYS:
+                return fixed4DayCache;
+            default:
+                return cacheMap.get(namespace);
+        }
+    }
+
+    private static Object l2Get(String namespace, String key){
+        CacheL2Store store = l2Store;
+        if(store == null){
+            return null;
+        }
+        try {
+            return store.get(namespace, key);
+        } catch (Exception e) {
+            log.error("[caffeine][l2]二级缓存读取失败！namespace=" + namespace + "，key=" + key + "，" + LogUtils.getStackTraceAsString(e));
+            return null;
+        }
+    }
+
+    private static Map<String, Object> l2GetAll(String namespace, Collection<String> keys){
+        CacheL2Store store = l2Store;
+        if(store == null){
+            return new HashMap<>();
+        }
+        try {
+            return store.getAll(namespace, keys);
+        } catch (Exception e) {
+            log.error("[caffeine][l2]二级缓存批量读取失败！namespace=" + namespace + "，" + LogUtils.getStackTraceAsString(e));
+            return new HashMap<>();
+        }
+    }
+
+    private static void l2Put(String namespace, Cache<Object, Object> caffeineCache, String key, Object obj){
+        CacheL2Store store = l2Store;
+        if(store == null){
+            return;
+        }
+        try {
+            store.put(namespace, key, obj, ttlMillis(namespace, caffeineCache, key));
+        } catch (Exception e) {
+            log.error("[caffeine][l2]二级缓存写入失败！namespace=" + namespace + "，key=" + key + "，" + LogUtils.getStackTraceAsString(e));
+        }
+    }
+
+    private static void l2PutAll(String namespace, Cache<Object, Object> caffeineCache, Map<String, ?> map){
+        CacheL2Store store = l2Store;
+        if(store == null){
+            return;
+        }
+        try {
+            store.putAll(namespace, map, ttlMillis(namespace, caffeineCache, null));
+        } catch (Exception e) {
+            log.error("[caffeine][l2]二级缓存批量写入失败！namespace=" + namespace + "，" + LogUtils.getStackTraceAsString(e));
+        }
+    }
+
+    /**
+     * 一级缓存的过期时间，二级缓存沿用
+     * <pre>
+     *     按条目过期的命名空间优先使用该key的剩余过期时间，不存在时使用命名空间默认过期时间
+     * </pre>
+     * @param namespace
+     * @param caffeineCache
+     * @param key 为null时使用命名空间默认过期时间
+     * @return 单位：毫秒，0表示不过期
+     */
+    private static long ttlMillis(String namespace, Cache<Object, Object> caffeineCache, String key){
+        Policy<Object, Object> policy = caffeineCache.policy();
+        if(policy.expireAfterWrite().isPresent()){
+            return policy.expireAfterWrite().get().getExpiresAfter(TimeUnit.MILLISECONDS);
+        }
+        if(key != null && policy.expireVariably().isPresent()){
+            OptionalLong expiresAfter = policy.expireVariably().get().getExpiresAfter(key, TimeUnit.MILLISECONDS);
+            if(expiresAfter.isPresent()){
+                return expiresAfter.getAsLong();
+            }
+        }
+        CacheSpec spec = cacheSpecMap.get(namespace);
+        return spec != null ? TimeUnit.SECONDS.toMillis(spec.getExpireSecond()) : 0;
+    }
+
+    /**
+     * 过期时间随机抖动，避免同时写入的数据在同一时刻集中过期
+     * @param nanos 过期时间，单位：纳秒
+     * @param jitterRatio 抖动比例，如0.1表示上下浮动10%
+     * @return
+     */
+    private static long jitter(long nanos, double jitterRatio){
+        if(jitterRatio <= 0){
+            return nanos;
+        }
+        double offset = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitterRatio;
+        return Math.max(1, (long) (nanos * (1 + offset)));
+    }
+
+    /**
+     * 命名空间缓存配置
+     */
+    public static final class CacheSpec {
+        /**
+         * 过期时间，单位：秒；按条目过期时为默认过期时间
+         */
+        private final long expireSecond;
+        /**
+         * 内存预算，单位：字节，大于0时按估算字节数淘汰，否则按数量淘汰
+         */
+        private final long maximumWeight;
+        /**
+         * 是否按条目过期
+         */
+        private final boolean variableExpiry;
+        /**
+         * 过期时间随机抖动比例，大于0时开启按条目过期
+         */
+        private final double jitterRatio;
+
+        private CacheSpec(long expireSecond, long maximumWeight, boolean variableExpiry, double jitterRatio) {
+            this.expireSecond = expireSecond;
+            this.maximumWeight = maximumWeight;
+            this.variableExpiry = variableExpiry;
+            this.jitterRatio = jitterRatio;
+        }
+
+        /**
+         * 创建配置
+         * @param expireSecond 过期时间，单位：秒
+         * @return
+         */
+        public static CacheSpec of(long expireSecond){
+            return new CacheSpec(expireSecond, 0, false, 0);
+        }
+
+        /**
+         * 设置内存预算，按估算字节数淘汰
+         * @param maximumWeight 单位：字节
+         * @return 新的配置对象
+         */
+        public CacheSpec withMaximumWeight(long maximumWeight){
+            if(maximumWeight <= 0){
+                throw new IllegalArgumentException("内存预算必须大于0");
+            }
+            return new CacheSpec(expireSecond, maximumWeight, variableExpiry, jitterRatio);
+        }
+
+        /**
+         * 开启按条目过期，可通过set(namespace, key, obj, ttl, unit)为每个key指定过期时间，
+         * 未指定时使用expireSecond
+         * @return 新的配置对象
+         */
+        public CacheSpec withVariableExpiry(){
+            return new CacheSpec(expireSecond, maximumWeight, true, jitterRatio);
+        }
+
+        /**
+         * 设置过期时间随机抖动比例并开启按条目过期，批量写入的数据不会在同一时刻集中过期
+         * @param jitterRatio 0-1之间取值，如0.1表示过期时间上下浮动10%
+         * @return 新的配置对象
+         */
+        public CacheSpec withJitter(double jitterRatio){
+            if(jitterRatio <= 0 || jitterRatio >= 1){
+                throw new IllegalArgumentException("过期时间抖动比例必须在0-1之间");
+            }
+            return new CacheSpec(expireSecond, maximumWeight, true, jitterRatio);
+        }
+
+        public long getExpireSecond() {
+            return expireSecond;
+        }
+
+        public long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public boolean isVariableExpiry() {
+            return variableExpiry;
+        }
+
+        public double getJitterRatio() {
+            return jitterRatio;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheSpec that = (CacheSpec) o;
+            return expireSecond == that.expireSecond && maximumWeight == that.maximumWeight
+                    && variableExpiry == that.variableExpiry && Double.compare(jitterRatio, that.jitterRatio) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expireSecond, maximumWeight, variableExpiry, jitterRatio);
+        }
+
+        @Override
+        public String toString() {
+            return "CacheSpec{expireSecond=" + expireSecond + ", maximumWeight=" + maximumWeight
+                    + ", variableExpiry=" + variableExpiry + ", jitterRatio=" + jitterRatio + "}";
+        }
+    }
+
+    /**
+     * 缓存统计快照
+     */
+    public static final class CacheStatsSnapshot {
+        /**
+         * 命名空间
+         */
+        private final String namespace;
+        /**
+         * 缓存数量估算值
+         */
+        private final long estimatedSize;
+        /**
+         * 估算字节数，仅按权重淘汰的命名空间有值
+         */
+        private final long weightedSize;
+        /**
+         * 命中、未命中、加载耗时、淘汰等统计
+         */
+        private final CacheStats stats;
+
+        public CacheStatsSnapshot(String namespace, long estimatedSize, long weightedSize, CacheStats stats) {
+            this.namespace = namespace;
+            this.estimatedSize = estimatedSize;
+            this.weightedSize = weightedSize;
+            this.stats = stats;
+        }
+
+        public String getNamespace() {
+            return namespace;
+        }
+
+        public long getEstimatedSize() {
+            return estimatedSize;
+        }
+
+        public long getWeightedSize() {
+            return weightedSize;
+        }
+
+        public CacheStats getStats() {
+            return stats;
+        }
+    }
+
+    /**
+     * 缓存统计上报
+     */
+    @FunctionalInterface
+    public interface StatsReporter {
+        /**
+         * 上报一个周期的统计数据
+         * @param snapshots 各命名空间的增量统计，数量类字段为当前值
+         */
+        void report(List<CacheStatsSnapshot> snapshots);
+    }
+
+    /**
+     * 对象内存占用估算器
+     */
+    @FunctionalInterface
+    public interface SizeEstimator {
+        /**
+         * 估算对象占用的字节数
+         * @param obj 缓存key或value
+         * @return 字节数
+         */
+        long estimate(Object obj);
+    }
+
+    /**
+     * 按条目过期策略：新增和更新使用命名空间默认过期时间（带随机抖动），读取不改变剩余过期时间
+     */
+    private static final class VariableExpiry implements Expiry<Object, Object> {
+        private final long expireNanos;
+        private final double jitterRatio;
+
+        private VariableExpiry(long expireNanos, double jitterRatio) {
+            this.expireNanos = expireNanos;
+            this.jitterRatio = jitterRatio;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return jitter(expireNanos, jitterRatio);
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return jitter(expireNanos, jitterRatio);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * 按条目指定的过期时间
+     */
+    private static final class ExplicitTtl {
+        private final long ttlNanos;
+        private final long expireAtNanos;
+
+        private ExplicitTtl(long ttlNanos, long expireAtNanos) {
+            this.ttlNanos = ttlNanos;
+            this.expireAtNanos = expireAtNanos;
+        }
+    }
+
+    /**
+     * 按条目指定过期时间标记的过期策略：与对应的缓存条目在同一时刻过期
+     */
+    private static final class ExplicitTtlExpiry implements Expiry<Object, Object> {
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return Math.max(0, ((ExplicitTtl) value).expireAtNanos - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return Math.max(0, ((ExplicitTtl) value).expireAtNanos - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * 普通对象的类结构：对象头与全部实例字段的字节数（按8字节对齐），以及需要递归估算的引用字段
+     */
+    private static final class ClassLayout {
+        private final long shallowSize;
+        private final List<Field> referenceFields = new ArrayList<>();
+
+        private ClassLayout(Class<?> clazz) {
+            long size = 16;
+            for(Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()){
+                for(Field field : c.getDeclaredFields()){
+                    if(Modifier.isStatic(field.getModifiers())){
+                        continue;
+                    }
+                    Class<?> type = field.getType();
+                    if(!type.isPrimitive()){
+                        size += 8;
+                        try {
+                            field.setAccessible(true);
+                            referenceFields.add(field);
+                        } catch (RuntimeException e) {
+                            // JDK内部类等无法访问的字段只计入引用本身
+                        }
+                    } else if(type == long.class || type == double.class){
+                        size += 8;
+                    } else if(type == int.class || type == float.class){
+                        size += 4;
+                    } else if(type == short.class || type == char.class){
+                        size += 2;
+                    } else {
+                        size += 1;
+                    }
+                }
+            }
+            this.shallowSize = (size + 7) & ~7L;
+        }
+    }
+
+    /**
+     * 刷新任务标识，缓存实例按引用区分
+     */
+    private static final class RefreshKey {
+        private final Cache<Object, Object> cache;
+        private final Object key;
+
+        private RefreshKey(Cache<Object, Object> cache, Object key) {
+            this.cache = cache;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RefreshKey)) {
+                return false;
+            }
+            RefreshKey that = (RefreshKey) o;
+            return cache == that.cache && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(cache) + Objects.hashCode(key);
         }
-        return null;
     }
 
 }
@@ -1,6 +1,17 @@
 package cn.soilove.utils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.concurrent.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -9,6 +20,10 @@ import java.util.function.Supplier;
  *     提供最场景的2种任务的快捷使用方法：
  *     - RecursiveTask
  *     - RecursiveAction
+ *     以及基于共享线程池、按阈值递归拆分的并行计算：
+ *     - parallelMap
+ *     - parallelReduce
+ *     - parallelForEach
  * </pre>
  *
  * @author: Chen GuoLin
@@ -17,7 +32,47 @@ import java.util.function.Supplier;
 public class ForkJoinUtils {
 
     /**
-     * 创建ForkJoinPool
+     * 共享线程池名称，由ThreadPoolUtils统一管理
+     */
+    public static final String SHARED_BIZ_NAME = "fork-join-utils";
+
+    /**
+     * invokeAll默认线程池名称，由ThreadPoolUtils统一管理
+     */
+    public static final String INVOKE_ALL_BIZ_NAME = "fork-join-utils-invoke-all";
+
+    /**
+     * 默认每个线程拆分的任务数，拆分阈值 = 数据量 / (并行度 * 该值)；与parallelStream的叶子任务数一致（AbstractTask.LEAF_TARGET = 并行度 << 2），
+     * 任务数足够在线程间均衡负载，拆分开销相对元素处理可忽略
+     */
+    private static final int DEF_TASKS_PER_THREAD = 4;
+
+    /**
+     * 共享线程池缓存，关闭后下次获取时重新创建
+     */
+    private static volatile ForkJoinPool sharedPool;
+
+    /**
+     * 获取ForkJoinPool，由ThreadPoolUtils按bizName统一管理（监控、关闭），同一bizName复用同一个线程池，无需自行shutdown
+     * @param bizName
+     * @return 并行度为CPU核数
+     */
+    public static ForkJoinPool newForkJoinPool(String bizName){
+        return ThreadPoolUtils.newForkJoinPool(bizName, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 获取ForkJoinPool，由ThreadPoolUtils按bizName统一管理（监控、关闭），同一bizName复用同一个线程池，无需自行shutdown
+     * @param bizName
+     * @param parallelism
+     * @return
+     */
+    public static ForkJoinPool newForkJoinPool(String bizName, int parallelism){
+        return ThreadPoolUtils.newForkJoinPool(bizName, parallelism);
+    }
+
+    /**
+     * 创建ForkJoinPool，不纳入统一管理，使用完需自行shutdown；推荐使用newForkJoinPool(bizName)
      * @return
      */
     public static ForkJoinPool newForkJoinPool(){
@@ -25,7 +80,7 @@ public class ForkJoinUtils {
     }
 
     /**
-     * 创建ForkJoinPool
+     * 创建ForkJoinPool，不纳入统一管理，使用完需自行shutdown；推荐使用newForkJoinPool(bizName, parallelism)
      * @param parallelism
      * @return
      */
@@ -34,25 +89,311 @@ public class ForkJoinUtils {
     }
 
     /**
-     * 创建ForkJoinPool并执行任务
+     * 获取共享ForkJoinPool，并行度为CPU核数
+     * @return
+     */
+    public static ForkJoinPool sharedPool(){
+        ForkJoinPool pool = sharedPool;
+        if(pool == null || pool.isShutdown()){
+            pool = newForkJoinPool(SHARED_BIZ_NAME);
+            sharedPool = pool;
+        }
+        return pool;
+    }
+
+    /**
+     * 在共享线程池中异步执行任务
      * @param runnables
      */
     public static void execute(Runnable ... runnables){
-        ForkJoinPool forkJoinPool = ForkJoinUtils.newForkJoinPool();
+        ForkJoinPool forkJoinPool = sharedPool();
         for(Runnable runnable : runnables){
             forkJoinPool.execute(runnable);
         }
-        forkJoinPool.shutdown();
+    }
+
+    /**
+     * 并行转换，结果顺序与入参一致
+     * <pre>
+     *     List<Order> orders = ForkJoinUtils.parallelMap(orderIds, id -> buildOrder(id));
+     * </pre>
+     * @param list
+     * @param mapper
+     * @param <T>
+     * @param <R>
+     * @return
+     */
+    public static <T, R> List<R> parallelMap(List<T> list, Function<? super T, ? extends R> mapper){
+        return parallelMap(list, mapper, defaultThreshold(list.size()));
+    }
+
+    /**
+     * 并行转换，结果顺序与入参一致
+     * @param list
+     * @param mapper
+     * @param threshold 拆分阈值，子任务数据量不超过该值时不再拆分
+     * @param <T>
+     * @param <R>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> parallelMap(List<T> list, Function<? super T, ? extends R> mapper, int threshold){
+        Objects.requireNonNull(mapper);
+        List<T> source = randomAccess(list);
+        Object[] results = new Object[source.size()];
+        invoke(new RangeAction(0, source.size(), Math.max(1, threshold), (from, to) -> {
+            for(int i = from; i < to; i++){
+                results[i] = mapper.apply(source.get(i));
+            }
+        }));
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * 并行转换，结果顺序与入参一致
+     * @param array
+     * @param mapper
+     * @param <T>
+     * @param <R>
+     * @return
+     */
+    public static <T, R> List<R> parallelMap(T[] array, Function<? super T, ? extends R> mapper){
+        return parallelMap(Arrays.asList(array), mapper);
+    }
+
+    /**
+     * 并行归约
+     * <pre>
+     *     BigDecimal total = ForkJoinUtils.parallelReduce(amounts, BigDecimal.ZERO, BigDecimal::add);
+     * </pre>
+     * @param list
+     * @param identity 初始值，与任意值op运算后结果不变
+     * @param op 满足结合律的运算
+     * @param <T>
+     * @return
+     */
+    public static <T> T parallelReduce(List<T> list, T identity, BinaryOperator<T> op){
+        return parallelReduce(list, identity, op, defaultThreshold(list.size()));
+    }
+
+    /**
+     * 并行归约
+     * @param list
+     * @param identity 初始值，与任意值op运算后结果不变
+     * @param op 满足结合律的运算
+     * @param threshold 拆分阈值，子任务数据量不超过该值时不再拆分
+     * @param <T>
+     * @return
+     */
+    public static <T> T parallelReduce(List<T> list, T identity, BinaryOperator<T> op, int threshold){
+        Objects.requireNonNull(op);
+        return invoke(new ReduceTask<>(randomAccess(list), 0, list.size(), Math.max(1, threshold), identity, op));
+    }
+
+    /**
+     * 并行归约
+     * @param array
+     * @param identity 初始值，与任意值op运算后结果不变
+     * @param op 满足结合律的运算
+     * @param <T>
+     * @return
+     */
+    public static <T> T parallelReduce(T[] array, T identity, BinaryOperator<T> op){
+        return parallelReduce(Arrays.asList(array), identity, op);
+    }
+
+    /**
+     * 并行遍历，不保证执行顺序
+     * @param list
+     * @param action
+     * @param <T>
+     */
+    public static <T> void parallelForEach(List<T> list, Consumer<? super T> action){
+        parallelForEach(list, action, defaultThreshold(list.size()));
+    }
+
+    /**
+     * 并行遍历，不保证执行顺序
+     * @param list
+     * @param action
+     * @param threshold 拆分阈值，子任务数据量不超过该值时不再拆分
+     * @param <T>
+     */
+    public static <T> void parallelForEach(List<T> list, Consumer<? super T> action, int threshold){
+        Objects.requireNonNull(action);
+        List<T> source = randomAccess(list);
+        invoke(new RangeAction(0, source.size(), Math.max(1, threshold), (from, to) -> {
+            for(int i = from; i < to; i++){
+                action.accept(source.get(i));
+            }
+        }));
+    }
+
+    /**
+     * 并行遍历，不保证执行顺序
+     * @param array
+     * @param action
+     * @param <T>
+     */
+    public static <T> void parallelForEach(T[] array, Consumer<? super T> action){
+        parallelForEach(Arrays.asList(array), action);
+    }
+
+    /**
+     * 批量并行执行并等待，超时后取消未完成的任务，返回部分结果
+     * <pre>
+     *     在ThreadPoolUtils.newVirtualThreadExecutor(INVOKE_ALL_BIZ_NAME)中执行（JDK21+为虚拟线程，低版本为可缓存线程池），
+     *     不占用并行度为CPU核数的共享ForkJoinPool；需要限制并发数时请使用指定线程池的重载方法
+     * </pre>
+     * @param tasks
+     * @param timeout 整体超时时间
+     * @param unit
+     * @param <T>
+     * @return 与tasks顺序一致的结果
+     */
+    public static <T> List<TaskResult<T>> invokeAll(List<? extends Callable<T>> tasks, long timeout, TimeUnit unit){
+        return invokeAll(tasks, timeout, unit, ThreadPoolUtils.newVirtualThreadExecutor(INVOKE_ALL_BIZ_NAME), null);
+    }
+
+    /**
+     * 批量并行执行并等待，超时后取消未完成的任务，返回部分结果
+     * @param tasks
+     * @param timeout 整体超时时间
+     * @param unit
+     * @param executor 执行任务的线程池，如：ThreadPoolUtils.newVirtualThreadExecutor("order-rpc", 200)
+     * @param <T>
+     * @return 与tasks顺序一致的结果
+     */
+    public static <T> List<TaskResult<T>> invokeAll(List<? extends Callable<T>> tasks, long timeout, TimeUnit unit,
+                                                    ExecutorService executor){
+        return invokeAll(tasks, timeout, unit, executor, null);
+    }
+
+    /**
+     * 批量并行执行并等待，超时后取消未完成的任务，返回部分结果
+     * <pre>
+     *         // 示例：并行调用多个服务，最多等待200毫秒
+     *         List<ForkJoinUtils.TaskResult<Price>> results = ForkJoinUtils.invokeAll(Arrays.asList(
+     *                 () -> priceService.query(skuId),
+     *                 () -> promotionService.query(skuId)),
+     *                 200, TimeUnit.MILLISECONDS, ThreadPoolUtils.newCachedThreadPool("price-rpc"),
+     *                 result -> log.info("任务完成！" + result));
+     * </pre>
+     * 超时的任务状态为TIMEOUT并被取消（cancel(true)，ThreadPoolExecutor中会中断执行线程，ForkJoinPool中不会中断）；
+     * 调用线程被中断时，未完成的任务状态为CANCELLED
+     * @param tasks
+     * @param timeout 整体超时时间
+     * @param unit
+     * @param executor 执行任务的线程池
+     * @param onComplete 每个任务完成（含失败、超时）时在调用线程中按完成顺序回调，可为null
+     * @param <T>
+     * @return 与tasks顺序一致的结果
+     */
+    public static <T> List<TaskResult<T>> invokeAll(List<? extends Callable<T>> tasks, long timeout, TimeUnit unit,
+                                                    ExecutorService executor, Consumer<TaskResult<T>> onComplete){
+        Objects.requireNonNull(executor);
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        List<TaskResult<T>> results = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<T>, Integer> futures = new IdentityHashMap<>(tasks.size());
+
+        for(int i = 0; i < tasks.size(); i++){
+            try {
+                futures.put(completionService.submit(tasks.get(i)), i);
+            } catch (RejectedExecutionException e) {
+                complete(results, new TaskResult<>(i, TaskStatus.FAILED, null, e, System.nanoTime() - start), onComplete);
+            }
+        }
+
+        boolean interrupted = false;
+        while(!futures.isEmpty()){
+            Future<T> future;
+            try {
+                future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                break;
+            }
+            if(future == null){
+                break;
+            }
+            complete(results, result(future, futures.remove(future), System.nanoTime() - start), onComplete);
+        }
+
+        // 取消未完成的任务，取消失败说明任务在最后一次poll之后已完成，按实际结果返回
+        TaskStatus status = interrupted ? TaskStatus.CANCELLED : TaskStatus.TIMEOUT;
+        for(Map.Entry<Future<T>, Integer> entry : futures.entrySet()){
+            Future<T> future = entry.getKey();
+            long elapsed = System.nanoTime() - start;
+            if(!future.cancel(true) && future.isDone()){
+                complete(results, result(future, entry.getValue(), elapsed), onComplete);
+            }else{
+                complete(results, new TaskResult<>(entry.getValue(), status, null, null, elapsed), onComplete);
+            }
+        }
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+        return results;
+    }
+
+    /**
+     * 获取已完成任务的结果
+     * @param future 已完成的任务
+     * @param index
+     * @param elapsed
+     * @param <T>
+     * @return
+     */
+    private static <T> TaskResult<T> result(Future<T> future, int index, long elapsed){
+        try {
+            // future已完成，get不会阻塞
+            return new TaskResult<>(index, TaskStatus.SUCCESS, future.get(), null, elapsed);
+        } catch (ExecutionException e) {
+            return new TaskResult<>(index, TaskStatus.FAILED, null, e.getCause(), elapsed);
+        } catch (CancellationException e) {
+            return new TaskResult<>(index, TaskStatus.CANCELLED, null, e, elapsed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TaskResult<>(index, TaskStatus.CANCELLED, null, e, elapsed);
+        }
+    }
+
+    private static <T> void complete(List<TaskResult<T>> results, TaskResult<T> result, Consumer<TaskResult<T>> onComplete){
+        results.set(result.getIndex(), result);
+        if(onComplete != null){
+            onComplete.accept(result);
+        }
+    }
+
+    private static <T> T invoke(ForkJoinTask<T> task){
+        // 已在共享线程池中时直接执行，避免嵌套提交
+        ForkJoinPool pool = sharedPool();
+        if(ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool){
+            return task.invoke();
+        }
+        return pool.invoke(task);
+    }
+
+    private static int defaultThreshold(int size){
+        return Math.max(1, size / (sharedPool().getParallelism() * DEF_TASKS_PER_THREAD));
+    }
+
+    private static <T> List<T> randomAccess(List<T> list){
+        if(list.isEmpty()){
+            return Collections.emptyList();
+        }
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
     }
 
     /**
      * 添加任务 - RecursiveTask
      * <pre>
-     *         ForkJoinPool forkJoinPool = ForkJoinUtils.newForkJoinPool();
+     *         ForkJoinPool forkJoinPool = ForkJoinUtils.newForkJoinPool("test");
      *         ForkJoinTask task = ForkJoinUtils.submit(forkJoinPool,() -> "执行了-1:" + System.currentTimeMillis());
      *         ForkJoinTask task2 = ForkJoinUtils.submit(forkJoinPool,() -> "执行了-2:" + System.currentTimeMillis());
      *         System.out.println(task.join() + "\n" +  task2.join());
-     *         forkJoinPool.shutdown();
      * </pre>
      * @param forkJoinPool
      * @param supplier
@@ -72,6 +413,168 @@ public class ForkJoinUtils {
         return forkJoinPool.submit(new MyRecursiveAction(runnable));
     }
 
+    /**
+     * 任务执行状态
+     */
+    public enum TaskStatus {
+        /**
+         * 执行成功
+         */
+        SUCCESS,
+        /**
+         * 执行异常或提交被拒绝
+         */
+        FAILED,
+        /**
+         * 超时未完成，已取消
+         */
+        TIMEOUT,
+        /**
+         * 被取消
+         */
+        CANCELLED
+    }
+
+    /**
+     * 单个任务的执行结果
+     */
+    public static final class TaskResult<T> {
+        /**
+         * 任务在入参中的下标
+         */
+        private final int index;
+        private final TaskStatus status;
+        /**
+         * 执行结果，仅SUCCESS时有值
+         */
+        private final T value;
+        /**
+         * 异常，FAILED时为任务抛出的异常
+         */
+        private final Throwable error;
+        /**
+         * 从开始执行到任务完成（或被取消）的耗时，单位：纳秒
+         */
+        private final long elapsedNanos;
+
+        public TaskResult(int index, TaskStatus status, T value, Throwable error, long elapsedNanos) {
+            this.index = index;
+            this.status = status;
+            this.value = value;
+            this.error = error;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public boolean isSuccess(){
+            return status == TaskStatus.SUCCESS;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public TaskStatus getStatus() {
+            return status;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "{index=" + index
+                    + ", status=" + status
+                    + ", elapsed=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms"
+                    + (error != null ? ", error=" + error : "")
+                    + "}";
+        }
+    }
+
+    /**
+     * 按下标区间递归拆分的任务
+     */
+    static class RangeAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final RangeBody body;
+
+        RangeAction(int from, int to, int threshold, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= threshold){
+                body.compute(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, threshold, body), new RangeAction(mid, to, threshold, body));
+        }
+    }
+
+    /**
+     * 不再拆分的区间的处理逻辑
+     */
+    @FunctionalInterface
+    interface RangeBody {
+        /**
+         * @param from 包含
+         * @param to 不包含
+         */
+        void compute(int from, int to);
+    }
+
+    /**
+     * 按下标区间递归拆分的归约任务
+     */
+    static class ReduceTask<T> extends RecursiveTask<T> {
+        private final List<T> list;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final T identity;
+        private final BinaryOperator<T> op;
+
+        ReduceTask(List<T> list, int from, int to, int threshold, T identity, BinaryOperator<T> op) {
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.identity = identity;
+            this.op = op;
+        }
+
+        @Override
+        protected T compute() {
+            if(to - from <= threshold){
+                T result = identity;
+                for(int i = from; i < to; i++){
+                    result = op.apply(result, list.get(i));
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            ReduceTask<T> left = new ReduceTask<>(list, from, mid, threshold, identity, op);
+            left.fork();
+            T right = new ReduceTask<>(list, mid, to, threshold, identity, op).compute();
+            return op.apply(left.join(), right);
+        }
+    }
+
     static class MyRecursiveTask extends RecursiveTask {
         private Supplier supplier;
 
@@ -1,10 +1,34 @@
 package cn.soilove.utils;
 
+import cn.soilove.utils.concurrent.AdaptiveThreadPoolExecutor;
+import cn.soilove.utils.concurrent.AimdLimiter;
+import cn.soilove.utils.concurrent.BatchingExecutor;
+import cn.soilove.utils.concurrent.ConcurrencyLimitedExecutorService;
+import cn.soilove.utils.concurrent.ContextPropagation;
+import cn.soilove.utils.concurrent.ContextPropagator;
+import cn.soilove.utils.concurrent.HashedWheelTimer;
+import cn.soilove.utils.concurrent.InstrumentedExecutor;
+import cn.soilove.utils.concurrent.InstrumentedForkJoinPool;
+import cn.soilove.utils.concurrent.InstrumentedScheduledThreadPoolExecutor;
+import cn.soilove.utils.concurrent.InstrumentedThreadPoolExecutor;
+import cn.soilove.utils.concurrent.LatencyHistogram;
+import cn.soilove.utils.concurrent.MdcContextPropagator;
+import cn.soilove.utils.concurrent.PriorityThreadPoolExecutor;
+import cn.soilove.utils.concurrent.ResizableBlockingQueue;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 线程池
@@ -18,19 +42,103 @@ public class ThreadPoolUtils {
     private static final Map<String, ExecutorService> executorServiceMap = new ConcurrentHashMap<>();
     private static final Map<String, ScheduledExecutorService> scheduledExecutorServiceMap = new ConcurrentHashMap<>();
 
+    /**
+     * 批量执行器，消费循环运行在同名的单线程线程池中
+     */
+    private static final Map<String, BatchingExecutor<?>> batchingExecutorMap = new ConcurrentHashMap<>();
+
+    /**
+     * 时间轮定时器，工作循环运行在同名的单线程线程池中
+     */
+    private static final Map<String, HashedWheelTimer> wheelTimerMap = new ConcurrentHashMap<>();
+
+    /**
+     * 线程池创建参数签名，用于检测同一bizName使用不同参数创建线程池的冲突
+     */
+    private static final Map<ExecutorService, String> poolSignatureMap = new ConcurrentHashMap<>();
+
+    /**
+     * 默认关闭等待时间，单位：秒
+     */
+    private static final long DEF_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /**
+     * JVM退出钩子，registerShutdownHook注册后不为null
+     */
+    private static final AtomicReference<Thread> shutdownHook = new AtomicReference<>();
+
+    /**
+     * 监控上报线程池名称
+     */
+    public static final String MONITOR_BIZ_NAME = "thread-pool-monitor";
+
+    /**
+     * 默认饱和告警阈值：队列使用率
+     */
+    private static final double DEF_QUEUE_USAGE_THRESHOLD = 0.8;
+
+    /**
+     * 默认饱和告警阈值：活跃线程数 / 最大线程数
+     */
+    private static final double DEF_ACTIVE_RATIO_THRESHOLD = 0.9;
+
+    private static volatile double queueUsageThreshold = DEF_QUEUE_USAGE_THRESHOLD;
+    private static volatile double activeRatioThreshold = DEF_ACTIVE_RATIO_THRESHOLD;
+
+    /**
+     * 监控定时上报任务
+     */
+    private static ScheduledFuture<?> monitorFuture;
+
+    /**
+     * 日志监控上报
+     */
+    public static final PoolReporter LOG_POOL_REPORTER = snapshots -> snapshots.forEach(snapshot ->
+            log.info("[thread_pool][monitor]" + snapshot));
+
+    /**
+     * 日志饱和告警
+     */
+    public static final SaturationListener LOG_SATURATION_LISTENER = (snapshot, reason) ->
+            log.warn("[thread_pool][saturation]线程池饱和！bizName=" + snapshot.getBizName() + "，reason=" + reason + "，" + snapshot);
+
+    private static volatile SaturationListener saturationListener = LOG_SATURATION_LISTENER;
+
+    /**
+     * JDK21+的Executors.newVirtualThreadPerTaskExecutor，低版本JDK或未开启预览特性的JDK19/20为null
+     */
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
+
+    /**
+     * 注册JVM退出钩子，退出时调用shutdownAll优雅关闭所有线程池，重复注册只生效一次
+     * <pre>
+     *     未注册时JVM退出不会等待线程池中的任务；等待超时后未完成的任务会被中断，应用自身有关闭流程时无需注册
+     * </pre>
+     * @param timeout 等待时间
+     * @param unit 等待时间单位
+     * @return 本次是否注册成功
+     */
+    public static boolean registerShutdownHook(long timeout, TimeUnit unit){
+        Objects.requireNonNull(unit);
+        Thread hook = new Thread(() -> shutdownAll(timeout, unit), "thread-pool-shutdown-hook");
+        if(!shutdownHook.compareAndSet(null, hook)){
+            return false;
+        }
+        Runtime.getRuntime().addShutdownHook(hook);
+        return true;
+    }
+
     /**
      * 单线程线程池，池子里的线程按照提交的先后顺序执行
      * @param bizName
      * @return
      */
     public static ExecutorService newSingleThreadExecutor(String bizName){
-        ExecutorService executorService = executorServiceMap.get(bizName);
-        if(executorService == null || executorService.isShutdown()){
-            executorService = Executors.newSingleThreadExecutor();
-            executorServiceMap.put(bizName,executorService);
-            log.info("[thread_pool][newSingleThreadExecutor]创建新线程池！bizName=" + bizName);
-        }
-        return executorService;
+        return getOrCreate(executorServiceMap, bizName, "newSingleThreadExecutor()", "newSingleThreadExecutor", () -> {
+            return new InstrumentedThreadPoolExecutor(1, 1,
+                    0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>());
+        });
     }
 
     /**
@@ -39,13 +147,11 @@ public class ThreadPoolUtils {
      * @return
      */
     public static ExecutorService newCachedThreadPool(String bizName){
-        ExecutorService executorService = executorServiceMap.get(bizName);
-        if(executorService == null || executorService.isShutdown()){
-            executorService = Executors.newCachedThreadPool();
-            executorServiceMap.put(bizName,executorService);
-            log.info("[thread_pool][newCachedThreadPool]创建新线程池！bizName=" + bizName);
-        }
-        return executorService;
+        return getOrCreate(executorServiceMap, bizName, "newCachedThreadPool()", "newCachedThreadPool", () -> {
+            return new InstrumentedThreadPoolExecutor(0, Integer.MAX_VALUE,
+                    60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>());
+        });
     }
 
     /**
@@ -55,13 +161,128 @@ public class ThreadPoolUtils {
      * @return
      */
     public static ExecutorService newFixedThreadPool(String bizName,int nThreads){
-        ExecutorService executorService = executorServiceMap.get(bizName);
-        if(executorService == null || executorService.isShutdown()){
-            executorService = Executors.newFixedThreadPool(nThreads);
-            executorServiceMap.put(bizName,executorService);
-            log.info("[thread_pool][newFixedThreadPool]创建新线程池！bizName=" + bizName);
+        return getOrCreate(executorServiceMap, bizName, "newFixedThreadPool(nThreads=" + nThreads + ")", "newFixedThreadPool", () -> {
+            return new InstrumentedThreadPoolExecutor(nThreads, nThreads,
+                    0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>());
+        });
+    }
+
+    /**
+     * 虚拟线程执行器，每个任务一个虚拟线程，适合大量阻塞IO的任务（如：HTTP调用）
+     * <pre>
+     *     JDK21+使用虚拟线程，低版本JDK降级为可缓存线程池
+     * </pre>
+     * @param bizName
+     * @return
+     */
+    public static ExecutorService newVirtualThreadExecutor(String bizName){
+        return newVirtualThreadExecutor(bizName, 0);
+    }
+
+    /**
+     * 限制并发数的虚拟线程执行器，每个任务一个虚拟线程，同一时刻最多maxConcurrency个任务在执行，用于保护下游服务
+     * <pre>
+     *     // 示例
+     *     ExecutorService executorService = ThreadPoolUtils.newVirtualThreadExecutor("http-order", 200);
+     *     executorService.submit(() -> HttpClientUtils.get(url));
+     * </pre>
+     * JDK21+使用虚拟线程 + 信号量，超出并发数的任务在虚拟线程中等待许可；低版本JDK降级为maxConcurrency个线程的定长线程池
+     * @param bizName
+     * @param maxConcurrency 最大并发数，小于等于0表示不限制
+     * @return
+     */
+    public static ExecutorService newVirtualThreadExecutor(String bizName, int maxConcurrency){
+        return getOrCreate(executorServiceMap, bizName, "newVirtualThreadExecutor(maxConcurrency=" + maxConcurrency + ")", "newVirtualThreadExecutor", () -> {
+            if(NEW_VIRTUAL_THREAD_EXECUTOR != null){
+                return new ConcurrencyLimitedExecutorService(newVirtualThreadPerTaskExecutor(), maxConcurrency);
+            }else if(maxConcurrency > 0){
+                return new InstrumentedThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                        0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>());
+            }else{
+                return new InstrumentedThreadPoolExecutor(0, Integer.MAX_VALUE,
+                        60L, TimeUnit.SECONDS,
+                        new SynchronousQueue<>());
+            }
+        });
+    }
+
+    /**
+     * 当前JDK是否支持虚拟线程
+     * @return
+     */
+    public static boolean isVirtualThreadSupported(){
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    private static Method findVirtualThreadExecutorFactory(){
+        try {
+            return probeVirtualThreadExecutorFactory(Executors.class.getMethod("newVirtualThreadPerTaskExecutor"));
+        } catch (NoSuchMethodException e) {
+            return null;
         }
-        return executorService;
+    }
+
+    /**
+     * 试创建一次虚拟线程执行器，JDK19/20中该方法为预览API，未开启--enable-preview时调用抛出异常，视为不支持
+     * @param factory
+     * @return 可用时返回factory，否则返回null
+     */
+    static Method probeVirtualThreadExecutorFactory(Method factory){
+        try {
+            ((ExecutorService) factory.invoke(null)).shutdown();
+            return factory;
+        } catch (Throwable t) {
+            log.warn("[thread_pool]虚拟线程不可用，降级为平台线程！factory=" + factory + "，error=" + t);
+            return null;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor(){
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (Exception e) {
+            throw new RuntimeException("创建虚拟线程执行器失败！", e);
+        }
+    }
+
+    /**
+     * 工作窃取线程池，每个线程维护自己的任务队列，空闲线程从其他线程队列尾部窃取任务，适合大量互不依赖的短任务
+     * <pre>
+     *     与Executors.newWorkStealingPool一致，本地任务先进先出
+     * </pre>
+     * @param bizName
+     * @param parallelism 并行度，如：Runtime.getRuntime().availableProcessors()
+     * @return
+     */
+    public static ForkJoinPool newWorkStealingPool(String bizName, int parallelism){
+        return newForkJoinPool(bizName, parallelism, true, "newWorkStealingPool");
+    }
+
+    /**
+     * 工作窃取线程池，并行度为CPU核数
+     * @param bizName
+     * @return
+     */
+    public static ForkJoinPool newWorkStealingPool(String bizName){
+        return newWorkStealingPool(bizName, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * ForkJoin线程池，本地任务后进先出，适合RecursiveTask、RecursiveAction等递归拆分的任务
+     * @param bizName
+     * @param parallelism 并行度，如：Runtime.getRuntime().availableProcessors()
+     * @return
+     */
+    public static ForkJoinPool newForkJoinPool(String bizName, int parallelism){
+        return newForkJoinPool(bizName, parallelism, false, "newForkJoinPool");
+    }
+
+    private static ForkJoinPool newForkJoinPool(String bizName, int parallelism, boolean asyncMode, String method){
+        String signature = method + "(parallelism=" + parallelism + ")";
+        return (ForkJoinPool) getOrCreate(executorServiceMap, bizName, signature, method, () ->
+                new InstrumentedForkJoinPool(bizName, parallelism, asyncMode));
     }
 
     /**
@@ -83,13 +304,55 @@ public class ThreadPoolUtils {
      * @return
      */
     public static ScheduledExecutorService newScheduledThreadPool(String bizName,int nThreads){
-        ScheduledExecutorService executorService = scheduledExecutorServiceMap.get(bizName);
-        if(executorService == null || executorService.isShutdown()){
-            executorService = Executors.newScheduledThreadPool(nThreads);
-            scheduledExecutorServiceMap.put(bizName,executorService);
-            log.info("[thread_pool][newScheduledThreadPool]创建新线程池！bizName=" + bizName);
-        }
-        return executorService;
+        return getOrCreate(scheduledExecutorServiceMap, bizName, "newScheduledThreadPool(nThreads=" + nThreads + ")", "newScheduledThreadPool", () -> {
+            return new InstrumentedScheduledThreadPoolExecutor(nThreads);
+        });
+    }
+
+    /**
+     * 时间轮定时器，tick为100毫秒，每圈512个槽位
+     * @param bizName
+     * @return
+     */
+    public static HashedWheelTimer newHashedWheelTimer(String bizName){
+        return newHashedWheelTimer(bizName, 100, TimeUnit.MILLISECONDS, 512, 0);
+    }
+
+    /**
+     * 时间轮定时器，适合大量短时超时任务（订单超时、重试等），添加和取消都是O(1)，精度为一个tick
+     * <pre>
+     *         // 示例
+     *         HashedWheelTimer timer = ThreadPoolUtils.newHashedWheelTimer("order-timeout", 100, TimeUnit.MILLISECONDS, 512, 1000000);
+     *         HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> closeOrder(orderId), 30, TimeUnit.MINUTES);
+     *         // 支付成功后取消
+     *         timeout.cancel();
+     * </pre>
+     * 到期任务在定时器线程中执行，耗时任务应在任务内部转交其他线程池；同一bizName已存在时返回已有的定时器
+     * @param bizName
+     * @param tickDuration 每个tick的时长，即定时精度，最小1毫秒
+     * @param unit tick时长单位
+     * @param ticksPerWheel 每圈槽位数，向上取整为2的幂
+     * @param maxPendingTimeouts 最大待执行任务数，超出时newTimeout抛出RejectedExecutionException，小于等于0表示不限制
+     * @return
+     */
+    public static HashedWheelTimer newHashedWheelTimer(String bizName, long tickDuration, TimeUnit unit,
+                                                       int ticksPerWheel, long maxPendingTimeouts){
+        String signature = "newHashedWheelTimer(tickNanos=" + unit.toNanos(tickDuration)
+                + ",ticksPerWheel=" + ticksPerWheel
+                + ",maxPendingTimeouts=" + maxPendingTimeouts + ")";
+        ExecutorService executorService = getOrCreate(executorServiceMap, bizName, signature, "newHashedWheelTimer", () ->
+                new InstrumentedThreadPoolExecutor(1, 1,
+                        0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>()));
+        return wheelTimerMap.compute(bizName, (k, existing) -> {
+            if(existing != null && !existing.isStopped() && existing.getExecutor() == executorService){
+                return existing;
+            }
+            if(existing != null){
+                existing.stop();
+            }
+            return new HashedWheelTimer(bizName, tickDuration, unit, ticksPerWheel, maxPendingTimeouts, executorService);
+        });
     }
 
     /**
@@ -105,19 +368,17 @@ public class ThreadPoolUtils {
      */
     public static ExecutorService newThreadPoolExecutor(String bizName,int corePoolSize,int maximumPoolSize,
                                                           long keepAliveTime,TimeUnit keepAliveTimeTimeUnit,int max_queue_len,String nameFormat){
-        ExecutorService executorService = executorServiceMap.get(bizName);
-        if(executorService == null || executorService.isShutdown()){
-            executorService = new ThreadPoolExecutor(
+        String signature = threadPoolExecutorSignature(corePoolSize, maximumPoolSize, keepAliveTime, keepAliveTimeTimeUnit,
+                max_queue_len, nameFormat, null);
+        return getOrCreate(executorServiceMap, bizName, signature, "newThreadPoolExecutor", () -> {
+            return new InstrumentedThreadPoolExecutor(
                     corePoolSize,
                     maximumPoolSize,
                     keepAliveTime,
                     keepAliveTimeTimeUnit,
-                    new LinkedBlockingDeque<>(max_queue_len),
+                    new ResizableBlockingQueue<>(max_queue_len),
                     new ThreadFactoryBuilder().setNameFormat(nameFormat).build());
-            executorServiceMap.put(bizName,executorService);
-            log.info("[thread_pool][newThreadPoolExecutor]创建新线程池！bizName=" + bizName);
-        }
-        return executorService;
+        });
     }
 
     /**
@@ -135,20 +396,18 @@ public class ThreadPoolUtils {
     public static  ExecutorService newThreadPoolExecutor(String bizName,int corePoolSize,int maximumPoolSize,
                                                         long keepAliveTime,TimeUnit keepAliveTimeTimeUnit,int max_queue_len,
                                                         String nameFormat,RejectedExecutionHandler rejectedExecutionHandler){
-        ExecutorService executorService = executorServiceMap.get(bizName);
-        if(executorService == null || executorService.isShutdown()){
-            executorService = new ThreadPoolExecutor(
+        String signature = threadPoolExecutorSignature(corePoolSize, maximumPoolSize, keepAliveTime, keepAliveTimeTimeUnit,
+                max_queue_len, nameFormat, rejectedExecutionHandler);
+        return getOrCreate(executorServiceMap, bizName, signature, "newThreadPoolExecutor", () -> {
+            return new InstrumentedThreadPoolExecutor(
                     corePoolSize,
                     maximumPoolSize,
                     keepAliveTime,
                     keepAliveTimeTimeUnit,
-                    new LinkedBlockingDeque<>(max_queue_len),
+                    new ResizableBlockingQueue<>(max_queue_len),
                     new ThreadFactoryBuilder().setNameFormat(nameFormat).build(),
                     rejectedExecutionHandler);
-            executorServiceMap.put(bizName,executorService);
-            log.info("[thread_pool][newThreadPoolExecutor]创建新线程池！bizName=" + bizName);
-        }
-        return executorService;
+        });
     }
     /**
      * 创建自定义参数线程池
@@ -173,6 +432,781 @@ public class ThreadPoolUtils {
         return newThreadPoolExecutor(bizName, corePoolSize, maximumPoolSize, keepAliveTime, keepAliveTimeTimeUnit, max_queue_len, nameFormat, new MyRejectPolicy(rejected));
     }
 
+    /**
+     * 创建优先级线程池，任务按优先级和截止时间执行，超过截止时间仍未开始执行的任务直接丢弃
+     * <pre>
+     *         // 示例
+     *         PriorityThreadPoolExecutor executor = ThreadPoolUtils.newPriorityThreadPoolExecutor("order", 8, "order-%s");
+     *         executor.execute(() -> batchJob());
+     *         Future<Order> f = executor.submit(() -> queryOrder(id), 10, 200, TimeUnit.MILLISECONDS);
+     * </pre>
+     * @param bizName
+     * @param nThreads 线程数
+     * @param nameFormat 如：ThreadPool-Order-%s
+     * @return
+     */
+    public static PriorityThreadPoolExecutor newPriorityThreadPoolExecutor(String bizName, int nThreads, String nameFormat){
+        String signature = "newPriorityThreadPoolExecutor(nThreads=" + nThreads + ",nameFormat=" + nameFormat + ")";
+        return (PriorityThreadPoolExecutor) getOrCreate(executorServiceMap, bizName, signature, "newPriorityThreadPoolExecutor", () ->
+                new PriorityThreadPoolExecutor(nThreads,
+                        new ThreadFactoryBuilder().setNameFormat(nameFormat).build(),
+                        new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    /**
+     * 创建批量执行器，适合计数、审计日志等大量细小的写任务：提交的数据按数量或等待时间凑批，由单个线程批量处理
+     * <pre>
+     *         // 示例：满500条或等待20毫秒批量写入
+     *         BatchingExecutor<AuditEvent> executor = ThreadPoolUtils.newBatchingExecutor("audit", 65536, 500, 20, TimeUnit.MILLISECONDS,
+     *                 events -> auditMapper.batchInsert(events));
+     *         executor.offer(event);
+     * </pre>
+     * 队列满时offer返回false、put阻塞；同一bizName已存在时返回已有的执行器，handler以首次创建为准
+     * @param bizName
+     * @param capacity 队列容量，向上取整为2的幂
+     * @param batchSize 每批最大条数
+     * @param linger 最长凑批等待时间
+     * @param unit 等待时间单位
+     * @param handler 批处理器，在消费线程中串行调用
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BatchingExecutor<T> newBatchingExecutor(String bizName, int capacity, int batchSize,
+                                                              long linger, TimeUnit unit, Consumer<List<T>> handler){
+        Objects.requireNonNull(handler);
+        String signature = "newBatchingExecutor(capacity=" + capacity
+                + ",batchSize=" + batchSize
+                + ",lingerNanos=" + unit.toNanos(linger) + ")";
+        ExecutorService executorService = getOrCreate(executorServiceMap, bizName, signature, "newBatchingExecutor", () ->
+                new InstrumentedThreadPoolExecutor(1, 1,
+                        0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>()));
+        return (BatchingExecutor<T>) batchingExecutorMap.compute(bizName, (k, existing) -> {
+            if(existing != null && !existing.isClosed() && existing.getExecutor() == executorService){
+                return existing;
+            }
+            if(existing != null){
+                existing.close();
+            }
+            return new BatchingExecutor<>(bizName, capacity, batchSize, linger, unit, handler, executorService);
+        });
+    }
+
+    /**
+     * 创建自适应并发线程池，按任务执行耗时动态调整在途任务数上限（AIMD）
+     * <pre>
+     *     执行耗时超过targetLatency时上限按0.9倍缩小（每个窗口最多一次），耗时正常且并发过半时上限加1，上限在[minLimit, maxLimit]之间；
+     *     超出上限的任务不排队，直接执行rejected
+     *
+     *         // 示例
+     *         ThreadPoolUtils.newAdaptiveThreadPoolExecutor("order-rpc", 8, 64, 200, TimeUnit.MILLISECONDS, "order-rpc-%s",
+     *                 () -> log.warn("下游繁忙，任务已降级！"))
+     *         .execute(() -> callOrderService());
+     * </pre>
+     * @param bizName
+     * @param minLimit 最小并发上限
+     * @param maxLimit 最大并发上限，同时为线程数上限和初始上限
+     * @param targetLatency 目标执行耗时
+     * @param targetLatencyUnit 目标执行耗时单位
+     * @param nameFormat 如：ThreadPool-Order-%s
+     * @param rejected 拒绝策略自定义处理，超出并发上限或线程池关闭时执行
+     * @return
+     */
+    public static ExecutorService newAdaptiveThreadPoolExecutor(String bizName, int minLimit, int maxLimit,
+                                                                long targetLatency, TimeUnit targetLatencyUnit,
+                                                                String nameFormat, Runnable rejected){
+        String signature = "newAdaptiveThreadPoolExecutor(minLimit=" + minLimit
+                + ",maxLimit=" + maxLimit
+                + ",targetLatencyNanos=" + targetLatencyUnit.toNanos(targetLatency)
+                + ",nameFormat=" + nameFormat + ")";
+        return getOrCreate(executorServiceMap, bizName, signature, "newAdaptiveThreadPoolExecutor", () ->
+                new AdaptiveThreadPoolExecutor(
+                        new AimdLimiter(minLimit, maxLimit, targetLatencyUnit.toNanos(targetLatency)),
+                        60L, TimeUnit.SECONDS,
+                        new ThreadFactoryBuilder().setNameFormat(nameFormat).build(),
+                        new MyRejectPolicy(rejected)));
+    }
+
+    /**
+     * 开启线程上下文传递，对ThreadPoolUtils创建的所有线程池生效（包括已创建的）：
+     * 提交任务时采集调用线程的上下文，执行时在工作线程恢复，执行完成后还原
+     * <pre>
+     *     // 传递MDC
+     *     ThreadPoolUtils.enableContextPropagation();
+     *     // 传递MDC和自定义ThreadLocal
+     *     ThreadPoolUtils.enableContextPropagation(MdcContextPropagator.INSTANCE, new TraceContextPropagator());
+     * </pre>
+     * @param propagators 上下文传递器，为空时默认传递MDC
+     */
+    public static void enableContextPropagation(ContextPropagator... propagators){
+        if(propagators.length == 0){
+            ContextPropagation.setPropagators(MdcContextPropagator.INSTANCE);
+        }else{
+            ContextPropagation.setPropagators(propagators);
+        }
+    }
+
+    /**
+     * 关闭线程上下文传递
+     */
+    public static void disableContextPropagation(){
+        ContextPropagation.setPropagators();
+    }
+
+    /**
+     * 优雅关闭线程池：不再接收新任务，等待已提交的任务执行完成，超过默认等待时间后中断未完成的任务
+     * @param bizName
+     * @return 是否在等待时间内全部执行完成，线程池不存在时返回true
+     */
+    public static boolean shutdown(String bizName){
+        return shutdown(bizName, DEF_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 优雅关闭线程池：不再接收新任务，等待已提交的任务执行完成，超过等待时间后中断未完成的任务
+     * @param bizName
+     * @param timeout 等待时间
+     * @param unit 等待时间单位
+     * @return 是否在等待时间内全部执行完成，线程池不存在时返回true
+     */
+    public static boolean shutdown(String bizName, long timeout, TimeUnit unit){
+        BatchingExecutor<?> batchingExecutor = batchingExecutorMap.remove(bizName);
+        if(batchingExecutor != null){
+            batchingExecutor.close();
+        }
+        HashedWheelTimer wheelTimer = wheelTimerMap.remove(bizName);
+        if(wheelTimer != null){
+            wheelTimer.stop();
+        }
+        List<ExecutorService> executorServices = new ArrayList<>(2);
+        ExecutorService executorService = executorServiceMap.remove(bizName);
+        if(executorService != null){
+            executorServices.add(executorService);
+        }
+        executorService = scheduledExecutorServiceMap.remove(bizName);
+        if(executorService != null){
+            executorServices.add(executorService);
+        }
+        return awaitShutdown(executorServices, timeout, unit);
+    }
+
+    /**
+     * 优雅关闭所有线程池，先全部停止接收新任务，再在同一个等待时间内等待执行完成，超时后中断未完成的任务；
+     * 调用registerShutdownHook后JVM退出时会自动调用
+     * @param timeout 等待时间
+     * @param unit 等待时间单位
+     * @return 是否在等待时间内全部执行完成
+     */
+    public static boolean shutdownAll(long timeout, TimeUnit unit){
+        stopMonitor();
+        for(String bizName : new ArrayList<>(batchingExecutorMap.keySet())){
+            BatchingExecutor<?> batchingExecutor = batchingExecutorMap.remove(bizName);
+            if(batchingExecutor != null){
+                batchingExecutor.close();
+            }
+        }
+        for(String bizName : new ArrayList<>(wheelTimerMap.keySet())){
+            HashedWheelTimer wheelTimer = wheelTimerMap.remove(bizName);
+            if(wheelTimer != null){
+                wheelTimer.stop();
+            }
+        }
+        List<ExecutorService> executorServices = new ArrayList<>();
+        for(String bizName : new ArrayList<>(executorServiceMap.keySet())){
+            ExecutorService executorService = executorServiceMap.remove(bizName);
+            if(executorService != null){
+                executorServices.add(executorService);
+            }
+        }
+        for(String bizName : new ArrayList<>(scheduledExecutorServiceMap.keySet())){
+            ExecutorService executorService = scheduledExecutorServiceMap.remove(bizName);
+            if(executorService != null){
+                executorServices.add(executorService);
+            }
+        }
+        return awaitShutdown(executorServices, timeout, unit);
+    }
+
+    private static boolean awaitShutdown(List<ExecutorService> executorServices, long timeout, TimeUnit unit){
+        executorServices.forEach(ExecutorService::shutdown);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        for(ExecutorService executorService : executorServices){
+            String signature = poolSignatureMap.remove(executorService);
+            try {
+                if(!executorService.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)){
+                    List<Runnable> dropped = executorService.shutdownNow();
+                    terminated = false;
+                    log.warn("[thread_pool][shutdown]线程池关闭超时，中断未完成任务！signature=" + signature + "，dropped=" + dropped.size());
+                }
+            } catch (InterruptedException e) {
+                executorService.shutdownNow();
+                Thread.currentThread().interrupt();
+                terminated = false;
+            }
+        }
+        return terminated;
+    }
+
+    /**
+     * 原子地获取或创建线程池
+     * <pre>
+     *     同一bizName只会创建一个线程池；已存在的线程池被外部关闭后重新创建；
+     *     创建参数与已存在的线程池不一致时抛出异常，避免静默返回参数不同的线程池
+     * </pre>
+     * @param map
+     * @param bizName
+     * @param signature 创建参数签名
+     * @param method 创建方法名，用于日志
+     * @param factory
+     * @param <E>
+     * @return
+     */
+    private static <E extends ExecutorService> E getOrCreate(Map<String, E> map, String bizName, String signature,
+                                                             String method, Supplier<E> factory){
+        Objects.requireNonNull(bizName);
+        // 已存在且参数一致时直接返回，避免每次获取都加锁
+        E current = map.get(bizName);
+        if(current != null && !current.isShutdown() && signature.equals(poolSignatureMap.get(current))){
+            return current;
+        }
+        return map.compute(bizName, (k, existing) -> {
+            if(existing != null && !existing.isShutdown()){
+                String existSignature = poolSignatureMap.get(existing);
+                if(existSignature != null && !existSignature.equals(signature)){
+                    throw new RuntimeException("线程池参数冲突！bizName=" + bizName + "，已存在=" + existSignature + "，本次=" + signature);
+                }
+                return existing;
+            }
+            if(existing != null){
+                poolSignatureMap.remove(existing);
+            }
+            E executorService = factory.get();
+            poolSignatureMap.put(executorService, signature);
+            log.info("[thread_pool][" + method + "]创建新线程池！bizName=" + bizName + "，signature=" + signature);
+            return executorService;
+        });
+    }
+
+    private static String threadPoolExecutorSignature(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                                      int max_queue_len, String nameFormat, RejectedExecutionHandler handler){
+        return "newThreadPoolExecutor(corePoolSize=" + corePoolSize
+                + ",maximumPoolSize=" + maximumPoolSize
+                + ",keepAliveNanos=" + unit.toNanos(keepAliveTime)
+                + ",max_queue_len=" + max_queue_len
+                + ",nameFormat=" + nameFormat
+                + ",rejected=" + (handler == null ? "AbortPolicy" : handler.getClass().getSimpleName()) + ")";
+    }
+
+    /**
+     * 运行时调整线程池参数，已排队的任务不会丢弃
+     * <pre>
+     *     // 大促前扩容
+     *     ThreadPoolUtils.reconfigure("order", ThreadPoolUtils.PoolSpec.of(32, 64).withQueueCapacity(10000));
+     * </pre>
+     * 调整后的参数不影响创建参数签名，原调用方按原参数获取线程池不会冲突；
+     * 仅newThreadPoolExecutor创建的线程池（有界队列）支持调整：单线程线程池调整后不再按提交顺序执行，
+     * 定长、优先级线程池为无界队列，最大线程数不会生效，自适应线程池由并发上限控制，批量执行器、时间轮定时器的内部线程池被独占；
+     * 队列容量调小时，超出部分的任务仍会执行，队列降到新容量以下后才接收新任务
+     * @param bizName
+     * @param spec 新参数，未设置的项保持不变
+     */
+    @SuppressWarnings("unchecked")
+    public static void reconfigure(String bizName, PoolSpec spec){
+        Objects.requireNonNull(spec);
+        ExecutorService executorService = executorServiceMap.get(bizName);
+        if(executorService == null || executorService.isShutdown()){
+            throw new RuntimeException("线程池不存在！bizName=" + bizName);
+        }
+        String signature = poolSignatureMap.get(executorService);
+        if(signature == null || !signature.startsWith("newThreadPoolExecutor(") || !(executorService instanceof ThreadPoolExecutor)){
+            throw new RuntimeException("线程池不支持调整参数！bizName=" + bizName + "，signature=" + signature);
+        }
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) executorService;
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if(spec.getQueueCapacity() > 0 && !(queue instanceof ResizableBlockingQueue)){
+            throw new RuntimeException("线程池队列不支持调整容量！bizName=" + bizName + "，queue=" + queue.getClass().getSimpleName());
+        }
+
+        synchronized (executor){
+            // 先扩后缩，保证任意时刻core <= max
+            if(spec.getCorePoolSize() > executor.getMaximumPoolSize()){
+                executor.setMaximumPoolSize(spec.getMaximumPoolSize());
+                executor.setCorePoolSize(spec.getCorePoolSize());
+            }else{
+                executor.setCorePoolSize(spec.getCorePoolSize());
+                executor.setMaximumPoolSize(spec.getMaximumPoolSize());
+            }
+            if(spec.getKeepAliveTime() >= 0){
+                executor.setKeepAliveTime(spec.getKeepAliveTime(), spec.getKeepAliveTimeUnit());
+            }
+            if(spec.getQueueCapacity() > 0){
+                ((ResizableBlockingQueue<Runnable>) queue).setCapacity(spec.getQueueCapacity());
+            }
+        }
+        log.info("[thread_pool][reconfigure]调整线程池参数！bizName=" + bizName + "，spec=" + spec);
+    }
+
+    /**
+     * 是否为批量执行器、时间轮定时器的内部单线程线程池
+     * @param executorService
+     * @return
+     */
+    private static boolean isInternalExecutor(ExecutorService executorService){
+        String signature = poolSignatureMap.get(executorService);
+        return signature != null && (signature.startsWith("newBatchingExecutor(") || signature.startsWith("newHashedWheelTimer("));
+    }
+
+    /**
+     * 获取所有线程池的运行快照
+     * @return key为bizName
+     */
+    public static Map<String, PoolSnapshot> snapshot(){
+        Map<String, PoolSnapshot> snapshots = new LinkedHashMap<>();
+        executorServiceMap.forEach((bizName, executorService) -> snapshots.put(bizName, snapshot(bizName, executorService)));
+        scheduledExecutorServiceMap.forEach((bizName, executorService) -> snapshots.put(bizName, snapshot(bizName, executorService)));
+        return snapshots;
+    }
+
+    /**
+     * 获取已创建的线程池，不会创建新线程池
+     * @param bizName
+     * @return 线程池不存在、已关闭，或为批量执行器、时间轮定时器的内部线程池时返回null
+     */
+    public static ExecutorService getExecutor(String bizName){
+        ExecutorService executorService = executorServiceMap.get(bizName);
+        if(executorService == null){
+            executorService = scheduledExecutorServiceMap.get(bizName);
+        }
+        // 内部线程池被消费循环独占，提交的任务永远不会执行
+        if(executorService == null || executorService.isShutdown() || isInternalExecutor(executorService)){
+            return null;
+        }
+        return executorService;
+    }
+
+    /**
+     * 获取线程池的运行快照
+     * @param bizName
+     * @return 线程池不存在时返回null
+     */
+    public static PoolSnapshot snapshot(String bizName){
+        ExecutorService executorService = executorServiceMap.get(bizName);
+        if(executorService == null){
+            executorService = scheduledExecutorServiceMap.get(bizName);
+        }
+        return executorService == null ? null : snapshot(bizName, executorService);
+    }
+
+    /**
+     * 设置饱和告警
+     * <pre>
+     *     每个监控周期检查一次，队列使用率或活跃线程占比达到阈值、或周期内出现拒绝任务时触发告警
+     * </pre>
+     * @param queueUsage 队列使用率阈值，(0,1]，默认0.8
+     * @param activeRatio 活跃线程数 / 最大线程数阈值，(0,1]，默认0.9
+     * @param listener 告警处理，如：日志、告警平台
+     */
+    public static void setSaturationAlert(double queueUsage, double activeRatio, SaturationListener listener){
+        if(queueUsage <= 0 || queueUsage > 1 || activeRatio <= 0 || activeRatio > 1){
+            throw new IllegalArgumentException("饱和告警阈值必须在(0,1]之间！queueUsage=" + queueUsage + "，activeRatio=" + activeRatio);
+        }
+        queueUsageThreshold = queueUsage;
+        activeRatioThreshold = activeRatio;
+        saturationListener = Objects.requireNonNull(listener);
+    }
+
+    /**
+     * 启动监控定时上报，同时检查饱和告警；重复启动会替换之前的上报任务
+     * <pre>
+     *     ThreadPoolUtils.startMonitor(ThreadPoolUtils.LOG_POOL_REPORTER, 1, TimeUnit.MINUTES);
+     * </pre>
+     * @param reporter 上报实现，如：日志、监控指标
+     * @param period 上报周期
+     * @param unit 上报周期单位
+     */
+    public static synchronized void startMonitor(PoolReporter reporter, long period, TimeUnit unit){
+        Objects.requireNonNull(reporter);
+        stopMonitor();
+
+        Map<String, Long> lastRejected = new HashMap<>();
+        monitorFuture = newScheduledThreadPool(MONITOR_BIZ_NAME, 1).scheduleAtFixedRate(() -> {
+            try {
+                Map<String, PoolSnapshot> current = snapshot();
+                current.values().forEach(snapshot -> {
+                    Long previous = lastRejected.put(snapshot.getBizName(), snapshot.getRejectedCount());
+                    checkSaturation(snapshot, previous == null ? 0 : previous);
+                });
+                lastRejected.keySet().retainAll(current.keySet());
+                reporter.report(new ArrayList<>(current.values()));
+            } catch (Exception e) {
+                log.error("[thread_pool][monitor]线程池监控上报失败！" + LogUtils.getStackTraceAsString(e));
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * 停止监控定时上报
+     */
+    public static synchronized void stopMonitor(){
+        if(monitorFuture != null){
+            monitorFuture.cancel(false);
+            monitorFuture = null;
+        }
+    }
+
+    private static void checkSaturation(PoolSnapshot snapshot, long lastRejected){
+        String reason = null;
+        int queueCapacity = snapshot.getQueueSize() + snapshot.getQueueRemainingCapacity();
+        if(snapshot.getRejectedCount() > lastRejected){
+            reason = "周期内拒绝任务" + (snapshot.getRejectedCount() - lastRejected) + "个";
+        }else if(queueCapacity > 0 && snapshot.getQueueSize() >= queueCapacity * queueUsageThreshold){
+            reason = "队列使用率超过" + queueUsageThreshold;
+        }else if(snapshot.getMaximumPoolSize() > 0 && snapshot.getActiveCount() >= snapshot.getMaximumPoolSize() * activeRatioThreshold){
+            reason = "活跃线程占比超过" + activeRatioThreshold;
+        }
+        if(reason == null){
+            return;
+        }
+        try {
+            saturationListener.onSaturated(snapshot, reason);
+        } catch (Exception e) {
+            log.error("[thread_pool][saturation]饱和告警处理失败！bizName=" + snapshot.getBizName() + LogUtils.getStackTraceAsString(e));
+        }
+    }
+
+    private static PoolSnapshot snapshot(String bizName, ExecutorService executorService){
+        BatchingExecutor<?> batchingExecutor = batchingExecutorMap.get(bizName);
+        if(batchingExecutor != null && batchingExecutor.getExecutor() == executorService){
+            return snapshot(bizName, batchingExecutor);
+        }
+        HashedWheelTimer wheelTimer = wheelTimerMap.get(bizName);
+        if(wheelTimer != null && wheelTimer.getExecutor() == executorService){
+            return snapshot(bizName, wheelTimer);
+        }
+        PoolSnapshot snapshot = new PoolSnapshot(bizName, executorService.getClass().getSimpleName());
+        if(executorService instanceof ThreadPoolExecutor){
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) executorService;
+            snapshot.corePoolSize = executor.getCorePoolSize();
+            snapshot.maximumPoolSize = executor.getMaximumPoolSize();
+            snapshot.poolSize = executor.getPoolSize();
+            snapshot.activeCount = executor.getActiveCount();
+            snapshot.largestPoolSize = executor.getLargestPoolSize();
+            snapshot.queueSize = executor.getQueue().size();
+            snapshot.queueRemainingCapacity = executor.getQueue().remainingCapacity();
+            snapshot.completedTaskCount = executor.getCompletedTaskCount();
+        }
+        if(executorService instanceof ForkJoinPool){
+            ForkJoinPool pool = (ForkJoinPool) executorService;
+            snapshot.corePoolSize = pool.getParallelism();
+            snapshot.maximumPoolSize = pool.getParallelism();
+            snapshot.poolSize = pool.getPoolSize();
+            snapshot.activeCount = pool.getActiveThreadCount();
+            snapshot.queueSize = (int) Math.min(Integer.MAX_VALUE, pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount());
+            snapshot.queueRemainingCapacity = Integer.MAX_VALUE - snapshot.queueSize;
+            snapshot.stealCount = pool.getStealCount();
+        }
+        if(executorService instanceof PriorityThreadPoolExecutor){
+            snapshot.expiredCount = ((PriorityThreadPoolExecutor) executorService).getExpiredCount();
+        }
+        if(executorService instanceof AdaptiveThreadPoolExecutor){
+            snapshot.concurrencyLimit = ((AdaptiveThreadPoolExecutor) executorService).getLimiter().getLimit();
+        }
+        if(executorService instanceof ConcurrencyLimitedExecutorService){
+            ConcurrencyLimitedExecutorService executor = (ConcurrencyLimitedExecutorService) executorService;
+            snapshot.maximumPoolSize = Math.max(executor.getMaxConcurrency(), 0);
+            snapshot.activeCount = executor.getActiveCount();
+            snapshot.queueSize = executor.getWaitingCount();
+        }
+        if(executorService instanceof InstrumentedExecutor){
+            InstrumentedExecutor executor = (InstrumentedExecutor) executorService;
+            snapshot.rejectedCount = executor.getRejectedCount();
+            snapshot.queueWait = executor.getQueueWaitHistogram().snapshot();
+            snapshot.runTime = executor.getRunTimeHistogram().snapshot();
+        }
+        return snapshot;
+    }
+
+    /**
+     * 批量执行器快照：队列为待处理数据，完成数为已处理的数据条数，执行耗时为每批处理耗时
+     */
+    private static PoolSnapshot snapshot(String bizName, BatchingExecutor<?> batchingExecutor){
+        PoolSnapshot snapshot = new PoolSnapshot(bizName, batchingExecutor.getClass().getSimpleName());
+        snapshot.corePoolSize = 1;
+        snapshot.maximumPoolSize = 1;
+        snapshot.poolSize = batchingExecutor.isClosed() ? 0 : 1;
+        snapshot.queueSize = batchingExecutor.getPendingCount();
+        snapshot.queueRemainingCapacity = batchingExecutor.getCapacity() - snapshot.queueSize;
+        snapshot.completedTaskCount = batchingExecutor.getProcessedCount();
+        snapshot.rejectedCount = batchingExecutor.getRejectedCount();
+        snapshot.queueWait = batchingExecutor.getQueueWaitHistogram().snapshot();
+        snapshot.runTime = batchingExecutor.getRunTimeHistogram().snapshot();
+        return snapshot;
+    }
+
+    /**
+     * 时间轮定时器快照：队列为待执行任务数，完成数为已执行任务数，排队耗时为实际执行相对计划时间的延迟
+     */
+    private static PoolSnapshot snapshot(String bizName, HashedWheelTimer wheelTimer){
+        PoolSnapshot snapshot = new PoolSnapshot(bizName, wheelTimer.getClass().getSimpleName());
+        snapshot.corePoolSize = 1;
+        snapshot.maximumPoolSize = 1;
+        snapshot.poolSize = wheelTimer.isStopped() ? 0 : 1;
+        snapshot.queueSize = (int) Math.min(Integer.MAX_VALUE, wheelTimer.getPendingTimeouts());
+        snapshot.queueRemainingCapacity = wheelTimer.getMaxPendingTimeouts() > 0
+                ? (int) Math.max(0, Math.min(Integer.MAX_VALUE, wheelTimer.getMaxPendingTimeouts() - wheelTimer.getPendingTimeouts()))
+                : Integer.MAX_VALUE - snapshot.queueSize;
+        snapshot.completedTaskCount = wheelTimer.getExpiredCount();
+        snapshot.rejectedCount = wheelTimer.getRejectedCount();
+        snapshot.queueWait = wheelTimer.getQueueWaitHistogram().snapshot();
+        snapshot.runTime = wheelTimer.getRunTimeHistogram().snapshot();
+        return snapshot;
+    }
+
+    /**
+     * 线程池运行快照，统计值为创建以来的累计值
+     */
+    public static final class PoolSnapshot {
+        private final String bizName;
+        private final String type;
+        private int corePoolSize;
+        private int maximumPoolSize;
+        private int poolSize;
+        private int activeCount;
+        private int largestPoolSize;
+        private int queueSize;
+        private int queueRemainingCapacity;
+        private long completedTaskCount;
+        private long rejectedCount;
+        /**
+         * 当前并发上限，仅自适应线程池有值
+         */
+        private int concurrencyLimit;
+        /**
+         * 过期丢弃的任务数，仅优先级线程池有值
+         */
+        private long expiredCount;
+        /**
+         * 任务窃取次数，仅ForkJoin线程池有值
+         */
+        private long stealCount;
+        /**
+         * 排队耗时，单位：纳秒
+         */
+        private LatencyHistogram.Snapshot queueWait;
+        /**
+         * 执行耗时，单位：纳秒
+         */
+        private LatencyHistogram.Snapshot runTime;
+
+        PoolSnapshot(String bizName, String type) {
+            this.bizName = bizName;
+            this.type = type;
+        }
+
+        public String getBizName() {
+            return bizName;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public int getLargestPoolSize() {
+            return largestPoolSize;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public int getQueueRemainingCapacity() {
+            return queueRemainingCapacity;
+        }
+
+        public long getCompletedTaskCount() {
+            return completedTaskCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public int getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        public long getExpiredCount() {
+            return expiredCount;
+        }
+
+        public long getStealCount() {
+            return stealCount;
+        }
+
+        public LatencyHistogram.Snapshot getQueueWait() {
+            return queueWait;
+        }
+
+        public LatencyHistogram.Snapshot getRunTime() {
+            return runTime;
+        }
+
+        @Override
+        public String toString() {
+            return "bizName=" + bizName
+                    + "，type=" + type
+                    + "，core=" + corePoolSize
+                    + "，max=" + maximumPoolSize
+                    + "，poolSize=" + poolSize
+                    + "，active=" + activeCount
+                    + "，largest=" + largestPoolSize
+                    + "，queue=" + queueSize
+                    + "，queueRemaining=" + queueRemainingCapacity
+                    + "，completed=" + completedTaskCount
+                    + "，rejected=" + rejectedCount
+                    + (concurrencyLimit > 0 ? "，concurrencyLimit=" + concurrencyLimit : "")
+                    + (expiredCount > 0 ? "，expired=" + expiredCount : "")
+                    + (stealCount > 0 ? "，steal=" + stealCount : "")
+                    + "，queueWait=" + queueWait
+                    + "，runTime=" + runTime;
+        }
+    }
+
+    /**
+     * 线程池参数
+     */
+    public static final class PoolSpec {
+        private final int corePoolSize;
+        private final int maximumPoolSize;
+        /**
+         * 空闲线程存活时间，小于0表示不调整
+         */
+        private final long keepAliveTime;
+        private final TimeUnit keepAliveTimeUnit;
+        /**
+         * 队列容量，小于等于0表示不调整
+         */
+        private final int queueCapacity;
+
+        private PoolSpec(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, int queueCapacity) {
+            this.corePoolSize = corePoolSize;
+            this.maximumPoolSize = maximumPoolSize;
+            this.keepAliveTime = keepAliveTime;
+            this.keepAliveTimeUnit = keepAliveTimeUnit;
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * 创建参数
+         * @param corePoolSize 线程池的基本大小
+         * @param maximumPoolSize 最大线程数量
+         * @return
+         */
+        public static PoolSpec of(int corePoolSize, int maximumPoolSize){
+            if(corePoolSize < 0 || maximumPoolSize <= 0 || corePoolSize > maximumPoolSize){
+                throw new IllegalArgumentException("线程数参数错误！corePoolSize=" + corePoolSize + "，maximumPoolSize=" + maximumPoolSize);
+            }
+            return new PoolSpec(corePoolSize, maximumPoolSize, -1, TimeUnit.SECONDS, 0);
+        }
+
+        /**
+         * 设置空闲线程存活时间
+         * @param keepAliveTime
+         * @param unit
+         * @return 新的参数对象
+         */
+        public PoolSpec withKeepAlive(long keepAliveTime, TimeUnit unit){
+            if(keepAliveTime < 0){
+                throw new IllegalArgumentException("空闲线程存活时间不能小于0");
+            }
+            return new PoolSpec(corePoolSize, maximumPoolSize, keepAliveTime, Objects.requireNonNull(unit), queueCapacity);
+        }
+
+        /**
+         * 设置队列容量
+         * @param queueCapacity
+         * @return 新的参数对象
+         */
+        public PoolSpec withQueueCapacity(int queueCapacity){
+            if(queueCapacity <= 0){
+                throw new IllegalArgumentException("队列容量必须大于0");
+            }
+            return new PoolSpec(corePoolSize, maximumPoolSize, keepAliveTime, keepAliveTimeUnit, queueCapacity);
+        }
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public long getKeepAliveTime() {
+            return keepAliveTime;
+        }
+
+        public TimeUnit getKeepAliveTimeUnit() {
+            return keepAliveTimeUnit;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        @Override
+        public String toString() {
+            return "{core=" + corePoolSize
+                    + ", max=" + maximumPoolSize
+                    + (keepAliveTime >= 0 ? ", keepAlive=" + keepAliveTime + " " + keepAliveTimeUnit : "")
+                    + (queueCapacity > 0 ? ", queueCapacity=" + queueCapacity : "")
+                    + "}";
+        }
+    }
+
+    /**
+     * 线程池监控上报
+     */
+    @FunctionalInterface
+    public interface PoolReporter {
+        /**
+         * 上报一个周期的线程池快照
+         * @param snapshots
+         */
+        void report(List<PoolSnapshot> snapshots);
+    }
+
+    /**
+     * 线程池饱和告警
+     */
+    @FunctionalInterface
+    public interface SaturationListener {
+        /**
+         * 线程池饱和时回调
+         * @param snapshot 当前快照
+         * @param reason 触发原因
+         */
+        void onSaturated(PoolSnapshot snapshot, String reason);
+    }
+
     static class MyRejectPolicy implements RejectedExecutionHandler{
         private Runnable rejected;
         public MyRejectPolicy(Runnable rejected) {
@@ -0,0 +1,259 @@
+package cn.soilove.utils.bloom;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分块布隆过滤器（线程安全，无锁）
+ * <pre>
+ *     位数组按512位（8个long，一个缓存行）分块，一个元素的所有位都落在同一块内：
+ *     一次插入/查询只访问一个缓存行，插入时同一个long内的多个位合并为一次CAS；
+ *     插入计数由LongAdder增量维护，获取元素数量无需统计位数组；
+ *     各块负载不均会抬高假阳性率，位数与哈希函数个数按分块模型计算，比标准布隆过滤器多占少量内存
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:07
+ **/
+public class BlockedBloomFilter {
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BLOCK_BITS = WORDS_PER_BLOCK * Long.SIZE;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / WORDS_PER_BLOCK;
+    private static final int BITS_PER_POSITION = 9;
+    private static final int POSITIONS_PER_WORD = Long.SIZE / BITS_PER_POSITION;
+    private static final int MAX_HASH_FUNCTIONS = 32;
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final int numBlocks;
+    private final int numHashFunctions;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * @param expectedInsertions 期望容量
+     * @param fpp 期望的假阳性概率 0-1之间取值
+     */
+    public BlockedBloomFilter(long expectedInsertions, double fpp) {
+        if(expectedInsertions <= 0){
+            throw new IllegalArgumentException("布隆过滤器容量参数错误！expectedInsertions=" + expectedInsertions);
+        }
+        if(!(fpp > 0 && fpp < 1)){
+            throw new IllegalArgumentException("布隆过滤器假阳性概率参数错误！fpp=" + fpp);
+        }
+        // 从标准布隆过滤器的每元素位数开始，逐步增加直到分块模型下的假阳性率满足要求
+        double bitsPerElement = -Math.log(fpp) / (LN2 * LN2);
+        int k = optimalHashFunctions(bitsPerElement);
+        while(blockedFpp(bitsPerElement, k) > fpp){
+            bitsPerElement *= 1.05;
+            k = optimalHashFunctions(bitsPerElement);
+        }
+        long blocks = (long) Math.ceil(bitsPerElement * expectedInsertions / BLOCK_BITS);
+        if(blocks > MAX_BLOCKS){
+            throw new IllegalArgumentException("布隆过滤器容量过大！expectedInsertions=" + expectedInsertions + "，fpp=" + fpp);
+        }
+        this.numBlocks = (int) Math.max(1, blocks);
+        this.numHashFunctions = k;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.bits = new AtomicLongArray(numBlocks * WORDS_PER_BLOCK);
+    }
+
+    /**
+     * 计算元素哈希值，可预先计算后调用putHash/mightContainHash，多个过滤器之间复用
+     * @param item
+     * @return
+     */
+    public static long hash(CharSequence item){
+        return Hashing.murmur3_128().hashString(item, StandardCharsets.UTF_8).asLong();
+    }
+
+    /**
+     * 添加元素
+     * @param item
+     * @return 位数组发生变化时返回true（元素一定是首次添加）
+     */
+    public boolean put(CharSequence item){
+        return putHash(hash(item));
+    }
+
+    /**
+     * 批量添加元素
+     * @param items
+     * @return 位数组发生变化的元素个数
+     */
+    public int putAll(Collection<? extends CharSequence> items){
+        int changed = 0;
+        for(CharSequence item : items){
+            if(putHash(hash(item))){
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 按预先计算的哈希值添加元素
+     * @param hash {@link #hash(CharSequence)}的返回值
+     * @return 位数组发生变化时返回true
+     */
+    public boolean putHash(long hash){
+        long[] masks = masks(hash);
+        int base = blockIndex(hash) * WORDS_PER_BLOCK;
+        boolean changed = false;
+        for(int i = 0; i < WORDS_PER_BLOCK; i++){
+            long mask = masks[i];
+            if(mask == 0){
+                continue;
+            }
+            int index = base + i;
+            for(;;){
+                long old = bits.get(index);
+                if((old & mask) == mask){
+                    break;
+                }
+                if(bits.compareAndSet(index, old, old | mask)){
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if(changed){
+            count.increment();
+        }
+        return changed;
+    }
+
+    /**
+     * 是否可能包含元素
+     * @param item
+     * @return
+     */
+    public boolean mightContain(CharSequence item){
+        return mightContainHash(hash(item));
+    }
+
+    /**
+     * 按预先计算的哈希值判断是否可能包含元素
+     * @param hash {@link #hash(CharSequence)}的返回值
+     * @return
+     */
+    public boolean mightContainHash(long hash){
+        long[] masks = masks(hash);
+        int base = blockIndex(hash) * WORDS_PER_BLOCK;
+        for(int i = 0; i < WORDS_PER_BLOCK; i++){
+            long mask = masks[i];
+            if(mask != 0 && (bits.get(base + i) & mask) != mask){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 已添加的元素数量（位数组发生变化的插入次数，重复元素不计）
+     * @return
+     */
+    public long approximateElementCount(){
+        return count.sum();
+    }
+
+    /**
+     * 按已添加的元素数量估算当前假阳性概率
+     * @return
+     */
+    public double expectedFpp(){
+        long n = approximateElementCount();
+        return n == 0 ? 0 : blockedFpp((double) bitSize() / n, numHashFunctions);
+    }
+
+    public long bitSize(){
+        return (long) numBlocks * BLOCK_BITS;
+    }
+
+    public int getNumHashFunctions() {
+        return numHashFunctions;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double getFpp() {
+        return fpp;
+    }
+
+    /**
+     * 高32位选块（乘法取高位代替取模）
+     */
+    private int blockIndex(long hash){
+        return (int) (((hash >>> 32) * numBlocks) >>> 32);
+    }
+
+    /**
+     * 元素在块内每个long上的位掩码
+     * <pre>
+     *     以哈希值为种子生成SplitMix64序列，每个输出取7个9位的块内位置；
+     *     不用双重哈希(a + i * b)，其位置模式彼此平移重叠，块内假阳性率明显偏高
+     * </pre>
+     */
+    private long[] masks(long hash){
+        long[] masks = new long[WORDS_PER_BLOCK];
+        long state = hash;
+        long random = 0;
+        for(int i = 0; i < numHashFunctions; i++){
+            int shift = (i % POSITIONS_PER_WORD) * BITS_PER_POSITION;
+            if(shift == 0){
+                state += 0x9E3779B97F4A7C15L;
+                random = mix64(state);
+            }
+            int bit = (int) (random >>> shift) & (BLOCK_BITS - 1);
+            masks[bit >>> 6] |= 1L << bit;
+        }
+        return masks;
+    }
+
+    private static long mix64(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 分块模型下使假阳性率最低的哈希函数个数
+     */
+    private static int optimalHashFunctions(double bitsPerElement){
+        int best = 1;
+        double bestFpp = blockedFpp(bitsPerElement, 1);
+        for(int k = 2; k <= MAX_HASH_FUNCTIONS; k++){
+            double p = blockedFpp(bitsPerElement, k);
+            if(p < bestFpp){
+                best = k;
+                bestFpp = p;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 分块模型下的假阳性率：块内元素数服从泊松分布，按各负载下的标准假阳性率加权求和
+     */
+    private static double blockedFpp(double bitsPerElement, int k){
+        double lambda = BLOCK_BITS / bitsPerElement;
+        double probability = Math.exp(-lambda);
+        double result = 0;
+        for(int j = 0; j < 4 * (int) lambda + 64; j++){
+            if(j > 0){
+                probability *= lambda / j;
+            }
+            result += probability * Math.pow(1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) k * j), k);
+        }
+        return result;
+    }
+}
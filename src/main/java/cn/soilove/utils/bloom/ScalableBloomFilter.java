@@ -0,0 +1,181 @@
+package cn.soilove.utils.bloom;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 可扩容布隆过滤器（线程安全）
+ * <pre>
+ *     由多层分块布隆过滤器组成，当前层写满后追加一层：新层容量按growthFactor倍增，
+ *     假阳性率按tighteningRatio收紧，各层假阳性率之和不超过整体目标值，永不因容量不足失败；
+ *     元素只计算一次哈希，查询时复用同一哈希值从最新（最大）的一层开始探测
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:08
+ **/
+public class ScalableBloomFilter {
+
+    private static final double DEF_TIGHTENING_RATIO = 0.5;
+    private static final int DEF_GROWTH_FACTOR = 2;
+
+    private final double fpp;
+    private final double tighteningRatio;
+    private final int growthFactor;
+    /**
+     * 写时复制，读取无锁
+     */
+    private volatile BlockedBloomFilter[] layers;
+
+    /**
+     * @param initialCapacity 第一层容量
+     * @param fpp 整体期望的假阳性概率 0-1之间取值
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        this(initialCapacity, fpp, DEF_TIGHTENING_RATIO, DEF_GROWTH_FACTOR);
+    }
+
+    /**
+     * @param initialCapacity 第一层容量
+     * @param fpp 整体期望的假阳性概率 0-1之间取值
+     * @param tighteningRatio 每层假阳性率的收紧比例 0-1之间取值
+     * @param growthFactor 每层容量的增长倍数
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp, double tighteningRatio, int growthFactor) {
+        if(!(fpp > 0 && fpp < 1)){
+            throw new IllegalArgumentException("布隆过滤器假阳性概率参数错误！fpp=" + fpp);
+        }
+        if(!(tighteningRatio > 0 && tighteningRatio < 1)){
+            throw new IllegalArgumentException("布隆过滤器收紧比例参数错误！tighteningRatio=" + tighteningRatio);
+        }
+        if(growthFactor < 1){
+            throw new IllegalArgumentException("布隆过滤器增长倍数参数错误！growthFactor=" + growthFactor);
+        }
+        this.fpp = fpp;
+        this.tighteningRatio = tighteningRatio;
+        this.growthFactor = growthFactor;
+        // 第i层假阳性率为 fpp * (1 - r) * r^i，各层之和收敛于fpp
+        this.layers = new BlockedBloomFilter[]{new BlockedBloomFilter(initialCapacity, fpp * (1 - tighteningRatio))};
+    }
+
+    /**
+     * 添加元素
+     * @param item
+     * @return 元素可能已存在时返回false
+     */
+    public boolean put(CharSequence item){
+        return putHash(BlockedBloomFilter.hash(item));
+    }
+
+    /**
+     * 批量添加元素
+     * @param items
+     * @return 新添加的元素个数
+     */
+    public int putAll(Collection<? extends CharSequence> items){
+        int added = 0;
+        for(CharSequence item : items){
+            if(putHash(BlockedBloomFilter.hash(item))){
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * 按预先计算的哈希值添加元素
+     * @param hash {@link BlockedBloomFilter#hash(CharSequence)}的返回值
+     * @return 元素可能已存在时返回false
+     */
+    public boolean putHash(long hash){
+        if(mightContainHash(hash)){
+            return false;
+        }
+        BlockedBloomFilter[] current = layers;
+        BlockedBloomFilter last = current[current.length - 1];
+        boolean changed = last.putHash(hash);
+        if(last.approximateElementCount() >= last.getExpectedInsertions()){
+            grow(current);
+        }
+        return changed;
+    }
+
+    /**
+     * 是否可能包含元素
+     * @param item
+     * @return
+     */
+    public boolean mightContain(CharSequence item){
+        return mightContainHash(BlockedBloomFilter.hash(item));
+    }
+
+    /**
+     * 按预先计算的哈希值判断是否可能包含元素
+     * @param hash {@link BlockedBloomFilter#hash(CharSequence)}的返回值
+     * @return
+     */
+    public boolean mightContainHash(long hash){
+        BlockedBloomFilter[] current = layers;
+        for(int i = current.length - 1; i >= 0; i--){
+            if(current[i].mightContainHash(hash)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 已添加的元素数量
+     * @return
+     */
+    public long approximateElementCount(){
+        long count = 0;
+        for(BlockedBloomFilter layer : layers){
+            count += layer.approximateElementCount();
+        }
+        return count;
+    }
+
+    /**
+     * 按各层已添加的元素数量估算整体假阳性概率
+     * @return
+     */
+    public double expectedFpp(){
+        double miss = 1;
+        for(BlockedBloomFilter layer : layers){
+            miss *= 1 - layer.expectedFpp();
+        }
+        return 1 - miss;
+    }
+
+    public long bitSize(){
+        long size = 0;
+        for(BlockedBloomFilter layer : layers){
+            size += layer.bitSize();
+        }
+        return size;
+    }
+
+    public int getLayerCount(){
+        return layers.length;
+    }
+
+    public double getFpp() {
+        return fpp;
+    }
+
+    /**
+     * 追加一层，只有最后一层仍是写满的那一层时才扩容
+     */
+    private synchronized void grow(BlockedBloomFilter[] expected){
+        BlockedBloomFilter[] current = layers;
+        if(current != expected){
+            return;
+        }
+        BlockedBloomFilter last = current[current.length - 1];
+        BlockedBloomFilter next = new BlockedBloomFilter(last.getExpectedInsertions() * growthFactor, last.getFpp() * tighteningRatio);
+        BlockedBloomFilter[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        layers = grown;
+    }
+}
@@ -0,0 +1,138 @@
+package cn.soilove.utils.cache;
+
+import cn.soilove.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存失效消息合并发布
+ * <pre>
+ *     失效消息先进入无锁队列，累计达到batchSize或等待lingerMillis后合并发布一次，
+ *     同一批次内重复的消息只发布一次，高频写入时显著减少总线消息数量
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:45
+ **/
+@Slf4j
+public class BatchingInvalidationPublisher {
+
+    private final CacheInvalidationBus bus;
+    private final String source;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> lingerFuture;
+
+    private final Queue<CacheInvalidation> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * @param bus 失效总线
+     * @param source 发布方实例标识，每次注册到总线时生成，订阅方据此识别自己发布的消息
+     * @param batchSize 每批最大消息数量
+     * @param lingerMillis 最长等待时间，单位：毫秒
+     * @param scheduler 发布使用的调度线程池
+     */
+    public BatchingInvalidationPublisher(CacheInvalidationBus bus, String source, int batchSize, long lingerMillis, ScheduledExecutorService scheduler) {
+        if(batchSize <= 0 || lingerMillis <= 0){
+            throw new IllegalArgumentException("批次大小和等待时间必须大于0");
+        }
+        this.bus = Objects.requireNonNull(bus);
+        this.source = Objects.requireNonNull(source);
+        this.batchSize = batchSize;
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.lingerFuture = scheduler.scheduleWithFixedDelay(this::flush, lingerMillis, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交失效消息，达到批次大小时立即触发发布；关闭后在调用线程中直接发布
+     * @param namespace 命名空间
+     * @param key 为null时表示整个命名空间失效
+     */
+    public void publish(String namespace, String key){
+        queue.offer(new CacheInvalidation(source, namespace, key));
+        int size = pending.incrementAndGet();
+        if(closed){
+            // 入队后再检查，close的最后一次flush之后入队的消息不会滞留
+            flush();
+            return;
+        }
+        if(size >= batchSize && flushScheduled.compareAndSet(false, true)){
+            try {
+                scheduler.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                // 调度线程池已关闭，不能影响缓存写入，改为在调用线程中发布
+                flushScheduled.set(false);
+                log.error("[caffeine][invalidation]缓存失效消息调度失败，改为同步发布！source=" + source + "，" + LogUtils.getStackTraceAsString(e));
+                flush();
+            }
+        }
+    }
+
+    /**
+     * 是否为本发布方发布的消息
+     * @param invalidation
+     * @return
+     */
+    public boolean isOwn(CacheInvalidation invalidation){
+        return source.equals(invalidation.getSource());
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 发布队列中的全部消息
+     */
+    public synchronized void flush(){
+        while (true){
+            Set<CacheInvalidation> batch = new LinkedHashSet<>();
+            int polled = 0;
+            CacheInvalidation invalidation;
+            while (polled < batchSize && (invalidation = queue.poll()) != null){
+                polled++;
+                batch.add(invalidation);
+            }
+            if(polled == 0){
+                return;
+            }
+            pending.addAndGet(-polled);
+
+            try {
+                bus.publish(new ArrayList<>(batch));
+            } catch (Exception e) {
+                log.error("[caffeine][invalidation]缓存失效消息发布失败！size=" + batch.size() + "，" + LogUtils.getStackTraceAsString(e));
+            }
+            if(polled < batchSize){
+                return;
+            }
+        }
+    }
+
+    /**
+     * 停止定时发布，并发布剩余消息；关闭后提交的消息同步发布
+     */
+    public void close(){
+        closed = true;
+        lingerFuture.cancel(false);
+        flush();
+    }
+}
@@ -0,0 +1,68 @@
+package cn.soilove.utils.cache;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 缓存失效消息
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:45
+ **/
+public final class CacheInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 发布消息的实例标识，订阅方据此忽略自己发布的消息
+     */
+    private final String source;
+    /**
+     * 命名空间
+     */
+    private final String namespace;
+    /**
+     * 失效的key，为null时表示整个命名空间失效
+     */
+    private final String key;
+
+    public CacheInvalidation(String source, String namespace, String key) {
+        this.source = source;
+        this.namespace = namespace;
+        this.key = key;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return Objects.equals(source, that.source) && Objects.equals(namespace, that.namespace) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, namespace, key);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{source=" + source + ", namespace=" + namespace + ", key=" + key + "}";
+    }
+}
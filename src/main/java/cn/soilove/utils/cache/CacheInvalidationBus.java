@@ -0,0 +1,35 @@
+package cn.soilove.utils.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效广播总线
+ * <pre>
+ *     CaffeineCacheUtils的set、del会把失效消息合并成批后发布到总线，
+ *     其他实例订阅后删除本地缓存中的对应数据。实现可以基于MQ、Redis Pub/Sub、UDP组播等
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:45
+ **/
+public interface CacheInvalidationBus {
+
+    /**
+     * 发布一批失效消息
+     * @param invalidations
+     */
+    void publish(List<CacheInvalidation> invalidations);
+
+    /**
+     * 订阅失效消息
+     * @param listener
+     */
+    void subscribe(Consumer<List<CacheInvalidation>> listener);
+
+    /**
+     * 取消订阅
+     * @param listener
+     */
+    void unsubscribe(Consumer<List<CacheInvalidation>> listener);
+}
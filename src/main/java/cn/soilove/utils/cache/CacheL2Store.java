@@ -0,0 +1,75 @@
+package cn.soilove.utils.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 二级缓存存储
+ * <pre>
+ *     CaffeineCacheUtils的本地缓存作为一级缓存，读取时依次查询一级缓存、二级缓存、数据源，
+ *     写入和删除同时作用于两级缓存。实现可以是本地文件、内存映射文件或远程KV存储
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:44
+ **/
+public interface CacheL2Store {
+
+    /**
+     * 获取缓存
+     * @param namespace 命名空间
+     * @param key
+     * @return 不存在或已过期时返回null
+     */
+    Object get(String namespace, String key);
+
+    /**
+     * 批量获取缓存
+     * @param namespace 命名空间
+     * @param keys
+     * @return 存在的数据，不包含不存在或已过期的key
+     */
+    default Map<String, Object> getAll(String namespace, Collection<String> keys){
+        Map<String, Object> result = new HashMap<>();
+        for(String key : keys){
+            Object value = get(namespace, key);
+            if(value != null){
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 缓存设值
+     * @param namespace 命名空间
+     * @param key
+     * @param value
+     * @param ttlMillis 过期时间，单位：毫秒，小于等于0表示不过期
+     */
+    void put(String namespace, String key, Object value, long ttlMillis);
+
+    /**
+     * 批量缓存设值
+     * @param namespace 命名空间
+     * @param map
+     * @param ttlMillis 过期时间，单位：毫秒，小于等于0表示不过期
+     */
+    default void putAll(String namespace, Map<String, ?> map, long ttlMillis){
+        map.forEach((key, value) -> put(namespace, key, value, ttlMillis));
+    }
+
+    /**
+     * 删除缓存
+     * @param namespace 命名空间
+     * @param key
+     */
+    void remove(String namespace, String key);
+
+    /**
+     * 删除命名空间下的全部缓存
+     * @param namespace 命名空间
+     */
+    void clear(String namespace);
+}
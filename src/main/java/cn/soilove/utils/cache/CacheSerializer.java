@@ -0,0 +1,29 @@
+package cn.soilove.utils.cache;
+
+/**
+ * 缓存值序列化
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:44
+ **/
+public interface CacheSerializer {
+
+    /**
+     * JDK序列化，缓存值需实现Serializable
+     */
+    CacheSerializer JDK = new JdkCacheSerializer();
+
+    /**
+     * 序列化
+     * @param value
+     * @return
+     */
+    byte[] serialize(Object value);
+
+    /**
+     * 反序列化
+     * @param bytes
+     * @return
+     */
+    Object deserialize(byte[] bytes);
+}
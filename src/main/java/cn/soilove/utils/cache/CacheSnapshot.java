@@ -0,0 +1,169 @@
+package cn.soilove.utils.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * 缓存快照文件
+ * <pre>
+ *     文件格式（大端序）：
+ *     头部：魔数(int) 版本(int) 条目数(int)
+ *     条目：过期时间戳(long，毫秒，0表示不过期) key长度(int) key(UTF-8) 值长度(int) 值(序列化字节)
+ *
+ *     写入先写临时文件再原子替换；读取通过内存映射，先顺序扫描长度字段建立偏移索引，
+ *     再并行反序列化，单文件不超过2GB
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:47
+ **/
+public class CacheSnapshot {
+
+    private static final int MAGIC = 0x45435331;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 12;
+
+    /**
+     * 写入快照文件
+     * @param file 快照文件
+     * @param entries 快照条目，按写入顺序保存
+     * @param serializer 值序列化
+     * @return 写入的条目数
+     */
+    public static int write(Path file, Collection<Entry> entries, CacheSerializer serializer){
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+                    for(Entry entry : entries){
+                        byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                        byte[] value = serializer.serialize(entry.getValue());
+                        out.writeLong(entry.getExpireAt());
+                        out.writeInt(key.length);
+                        out.write(key);
+                        out.writeInt(value.length);
+                        out.write(value);
+                    }
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return entries.size();
+        } catch (IOException e) {
+            throw new RuntimeException("写入缓存快照失败，" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取快照文件，已过期的条目会被跳过
+     * @param file 快照文件
+     * @param serializer 值序列化
+     * @param consumer 条目处理，返回是否处理成功（如已存在未写入时返回false），并行读取时需线程安全
+     * @param parallel 是否并行反序列化
+     * @return 处理成功的条目数
+     */
+    public static int read(Path file, CacheSerializer serializer, Predicate<Entry> consumer, boolean parallel){
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE){
+                throw new RuntimeException("缓存快照文件超过2GB，file:" + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if(size < HEADER_LENGTH || buffer.getInt(0) != MAGIC){
+                throw new RuntimeException("缓存快照文件格式错误，file:" + file);
+            }
+            if(buffer.getInt(4) != VERSION){
+                throw new RuntimeException("缓存快照文件版本不支持，file:" + file);
+            }
+            int count = buffer.getInt(8);
+
+            // 顺序扫描建立偏移索引
+            int[] offsets = new int[count];
+            int position = HEADER_LENGTH;
+            for(int i = 0; i < count; i++){
+                offsets[i] = position;
+                int keyLength = buffer.getInt(position + 8);
+                int valueLength = buffer.getInt(position + 12 + keyLength);
+                position += 16 + keyLength + valueLength;
+                if(position > size){
+                    throw new RuntimeException("缓存快照文件不完整，file:" + file);
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            IntStream indexes = IntStream.range(0, count);
+            if(parallel){
+                indexes = indexes.parallel();
+            }
+            return (int) indexes.filter(i -> {
+                Entry entry = readEntry(buffer, offsets[i], serializer, now);
+                return entry != null && consumer.test(entry);
+            }).count();
+        } catch (IOException e) {
+            throw new RuntimeException("读取缓存快照失败，" + e.getMessage(), e);
+        }
+    }
+
+    private static Entry readEntry(ByteBuffer buffer, int offset, CacheSerializer serializer, long now){
+        long expireAt = buffer.getLong(offset);
+        if(expireAt > 0 && expireAt <= now){
+            return null;
+        }
+        int keyLength = buffer.getInt(offset + 8);
+        byte[] key = new byte[keyLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 12);
+        view.get(key);
+        byte[] value = new byte[view.getInt()];
+        view.get(value);
+        return new Entry(new String(key, StandardCharsets.UTF_8), serializer.deserialize(value), expireAt);
+    }
+
+    /**
+     * 快照条目
+     */
+    public static final class Entry {
+        private final String key;
+        private final Object value;
+        /**
+         * 过期时间戳，单位：毫秒，0表示不过期
+         */
+        private final long expireAt;
+
+        public Entry(String key, Object value, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public long getExpireAt() {
+            return expireAt;
+        }
+    }
+}
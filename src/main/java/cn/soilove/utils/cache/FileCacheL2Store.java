@@ -0,0 +1,151 @@
+package cn.soilove.utils.cache;
+
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+
+/**
+ * 本地文件二级缓存
+ * <pre>
+ *     每个命名空间一个目录，每个key一个文件，文件名为key的哈希值；
+ *     文件内容：key、过期时间戳（毫秒，0表示不过期）、序列化后的缓存值。
+ *     写入先写临时文件再原子替换，读取到过期数据时删除文件。
+ *     适用于单机重启后保留缓存及离线测试，多实例共享请使用远程KV实现
+ *
+ *     // 示例
+ *     CaffeineCacheUtils.setL2Store(new FileCacheL2Store(Paths.get("/data/cache")));
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:44
+ **/
+@Slf4j
+public class FileCacheL2Store implements CacheL2Store {
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final CacheSerializer serializer;
+
+    public FileCacheL2Store(Path root) {
+        this(root, CacheSerializer.JDK);
+    }
+
+    public FileCacheL2Store(Path root, CacheSerializer serializer) {
+        this.root = Objects.requireNonNull(root);
+        this.serializer = Objects.requireNonNull(serializer);
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new RuntimeException("创建二级缓存目录失败，" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object get(String namespace, String key) {
+        Path file = file(namespace, key);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new RuntimeException("读取二级缓存文件失败，" + e.getMessage(), e);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            String fileKey = in.readUTF();
+            long expireAt = in.readLong();
+            // 哈希冲突时视为不存在
+            if(!fileKey.equals(key)){
+                return null;
+            }
+            if(expireAt > 0 && expireAt <= System.currentTimeMillis()){
+                Files.deleteIfExists(file);
+                return null;
+            }
+            byte[] value = new byte[in.readInt()];
+            in.readFully(value);
+            return serializer.deserialize(value);
+        } catch (IOException e) {
+            throw new RuntimeException("解析二级缓存文件失败，" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void put(String namespace, String key, Object value, long ttlMillis) {
+        byte[] valueBytes = serializer.serialize(value);
+        long expireAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0;
+
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(valueBytes.length + key.length() + 16);
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeUTF(key);
+            out.writeLong(expireAt);
+            out.writeInt(valueBytes.length);
+            out.write(valueBytes);
+            out.flush();
+
+            Path file = file(namespace, key);
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), TMP_SUFFIX);
+            try {
+                Files.write(tmp, bos.toByteArray());
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("写入二级缓存文件失败，" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void remove(String namespace, String key) {
+        try {
+            Files.deleteIfExists(file(namespace, key));
+        } catch (IOException e) {
+            throw new RuntimeException("删除二级缓存文件失败，" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void clear(String namespace) {
+        Path dir = dir(namespace);
+        if(!Files.isDirectory(dir)){
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for(Path file : files){
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("清空二级缓存目录失败，" + e.getMessage(), e);
+        }
+        log.info("[caffeine][l2]清空二级缓存命名空间！namespace=" + namespace);
+    }
+
+    private Path dir(String namespace){
+        return root.resolve(hash(namespace));
+    }
+
+    private Path file(String namespace, String key){
+        return dir(namespace).resolve(hash(key));
+    }
+
+    private static String hash(String str){
+        return Hashing.murmur3_128().hashString(str, StandardCharsets.UTF_8).toString();
+    }
+}
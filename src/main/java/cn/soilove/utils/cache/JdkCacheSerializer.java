@@ -0,0 +1,36 @@
+package cn.soilove.utils.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * JDK序列化，缓存值需实现Serializable
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:44
+ **/
+public class JdkCacheSerializer implements CacheSerializer {
+
+    @Override
+    public byte[] serialize(Object value) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(value);
+            oos.flush();
+            return bos.toByteArray();
+        } catch (Exception e) {
+            throw new RuntimeException("缓存值序列化失败，" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ois.readObject();
+        } catch (Exception e) {
+            throw new RuntimeException("缓存值反序列化失败，" + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package cn.soilove.utils.cache;
+
+import cn.soilove.utils.LogUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内缓存失效总线，发布时同步通知全部订阅者，用于测试及单机多组件场景
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:45
+ **/
+@Slf4j
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<List<CacheInvalidation>>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<CacheInvalidation> invalidations) {
+        for(Consumer<List<CacheInvalidation>> listener : listeners){
+            try {
+                listener.accept(invalidations);
+            } catch (Exception e) {
+                log.error("[caffeine][invalidation]缓存失效消息处理失败！" + LogUtils.getStackTraceAsString(e));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<CacheInvalidation>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<List<CacheInvalidation>> listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,88 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应并发线程池
+ * <pre>
+ *     线程数为最大并发上限，提交任务时由AimdLimiter按观测到的执行耗时动态限制在途任务数（排队 + 执行中），
+ *     超出上限的任务直接交给拒绝策略，不进入队列
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:54
+ **/
+public class AdaptiveThreadPoolExecutor extends InstrumentedThreadPoolExecutor {
+
+    private final AimdLimiter limiter;
+
+    public AdaptiveThreadPoolExecutor(AimdLimiter limiter, long keepAliveTime, TimeUnit unit,
+                                      ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+        super(limiter.getMaxLimit(), limiter.getMaxLimit(), keepAliveTime, unit,
+                new LinkedBlockingQueue<>(), threadFactory, handler);
+        this.limiter = limiter;
+        if(keepAliveTime > 0){
+            allowCoreThreadTimeOut(true);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        LimitedRunnable task = (LimitedRunnable) wrap(command);
+        if(!limiter.tryAcquire()){
+            getRejectedExecutionHandler().rejectedExecution(task, this);
+            return;
+        }
+        task.acquired = true;
+        super.execute(task);
+    }
+
+    @Override
+    protected TimedRunnable wrap(Runnable command) {
+        if(command instanceof LimitedRunnable){
+            return (LimitedRunnable) command;
+        }
+        return new LimitedRunnable(command).markInternal();
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if(r instanceof LimitedRunnable && ((LimitedRunnable) r).release()){
+            limiter.onSample(System.nanoTime() - ((LimitedRunnable) r).getStartNanos());
+        }
+    }
+
+    @Override
+    protected void onDiscarded(Runnable r) {
+        if(r instanceof LimitedRunnable && ((LimitedRunnable) r).release()){
+            limiter.release();
+        }
+    }
+
+    public AimdLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * 记录是否占用了并发名额，保证只释放一次
+     */
+    private static final class LimitedRunnable extends TimedRunnable {
+        private boolean acquired;
+
+        private LimitedRunnable(Runnable delegate) {
+            super(delegate);
+        }
+
+        private boolean release(){
+            if(!acquired){
+                return false;
+            }
+            acquired = false;
+            return true;
+        }
+    }
+}
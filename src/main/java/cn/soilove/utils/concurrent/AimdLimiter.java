@@ -0,0 +1,132 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD（加性增、乘性减）并发限制器
+ * <pre>
+ *     任务耗时超过目标值时，并发上限按比例缩小；耗时正常且并发接近上限时，并发上限加1；
+ *     上限在[minLimit, maxLimit]之间调整；
+ *     缩小后，在缩小之前就已开始的任务即使超时也不再缩小，即每个窗口最多缩小一次，避免同一批慢任务把上限连续压到最小
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:54
+ **/
+public class AimdLimiter {
+
+    /**
+     * 默认缩小比例
+     */
+    public static final double DEF_BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 上次缩小的时间，初始化为足够早的时间，保证首个超时样本即可缩小
+     */
+    private final AtomicLong lastBackoffNanos = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+
+    public AimdLimiter(int minLimit, int maxLimit, long targetLatencyNanos) {
+        this(minLimit, maxLimit, targetLatencyNanos, DEF_BACKOFF_RATIO);
+    }
+
+    /**
+     * @param minLimit 最小并发上限
+     * @param maxLimit 最大并发上限，同时为初始上限
+     * @param targetLatencyNanos 目标耗时，单位：纳秒
+     * @param backoffRatio 超过目标耗时时的缩小比例，0-1之间
+     */
+    public AimdLimiter(int minLimit, int maxLimit, long targetLatencyNanos, double backoffRatio) {
+        if(minLimit <= 0 || maxLimit < minLimit){
+            throw new IllegalArgumentException("并发上限参数错误！minLimit=" + minLimit + "，maxLimit=" + maxLimit);
+        }
+        if(targetLatencyNanos <= 0){
+            throw new IllegalArgumentException("目标耗时必须大于0");
+        }
+        if(backoffRatio <= 0 || backoffRatio >= 1){
+            throw new IllegalArgumentException("缩小比例必须在0-1之间");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(maxLimit);
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     * @return 超出当前并发上限时返回false
+     */
+    public boolean tryAcquire(){
+        for(;;){
+            int current = inFlight.get();
+            if(current >= limit.get()){
+                return false;
+            }
+            if(inFlight.compareAndSet(current, current + 1)){
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 任务完成，释放名额并根据耗时调整并发上限
+     * @param latencyNanos 任务耗时，单位：纳秒
+     */
+    public void onSample(long latencyNanos){
+        int current = inFlight.getAndDecrement();
+        if(latencyNanos > targetLatencyNanos){
+            long now = System.nanoTime();
+            long last = lastBackoffNanos.get();
+            // 任务开始时间晚于上次缩小才缩小，并发完成的多个超时样本只有一个能缩小
+            if(now - latencyNanos - last >= 0 && lastBackoffNanos.compareAndSet(last, now)){
+                limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+            }
+        }else if(current * 2 >= limit.get()){
+            // 并发使用过半才扩大上限，避免空闲时无限增长
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    /**
+     * 释放名额，不参与上限调整，用于任务被拒绝或取消
+     */
+    public void release(){
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 当前并发上限
+     * @return
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * 当前占用的并发数
+     * @return
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public long getTargetLatencyNanos() {
+        return targetLatencyNanos;
+    }
+}
@@ -0,0 +1,323 @@
+package cn.soilove.utils.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 批量执行器
+ * <pre>
+ *     提交的数据进入无锁有界队列，由单个消费线程按数量或等待时间凑批后交给批处理器：
+ *     - 凑满batchSize条立即处理
+ *     - 第一条数据等待超过linger后，不足batchSize条也处理
+ *     队列满时put阻塞、offer返回false，实现背压；消费线程只在空闲或批次可凑满时被唤醒
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:59
+ **/
+@Slf4j
+public class BatchingExecutor<T> implements InstrumentedExecutor {
+
+    /**
+     * 队列满时生产者的退避时间
+     */
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * 空闲时最长休眠时间，避免极端情况下丢失唤醒
+     */
+    private static final long MAX_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String bizName;
+    private final MpscBoundedQueue<T> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Consumer<List<T>> handler;
+    private final ExecutorService executor;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder failedBatchCount = new LongAdder();
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+
+    private volatile Thread consumer;
+    /**
+     * 队列长度达到该值时唤醒消费线程：空闲时为1，凑批中为剩余条数，处理中不唤醒
+     */
+    private volatile int wakeThreshold = Integer.MAX_VALUE;
+    private volatile boolean closed;
+    /**
+     * 正在提交的生产者数，关闭后消费线程等其归零且队列为空才退出，避免检查closed之后入队的数据无人处理
+     */
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    /**
+     * @param bizName 业务名称，用于日志
+     * @param capacity 队列容量
+     * @param batchSize 每批最大条数
+     * @param linger 最长凑批等待时间
+     * @param unit
+     * @param handler 批处理器，在消费线程中串行调用
+     * @param executor 运行消费循环的线程池，消费循环会一直占用其中一个线程
+     */
+    public BatchingExecutor(String bizName, int capacity, int batchSize, long linger, TimeUnit unit,
+                            Consumer<List<T>> handler, ExecutorService executor) {
+        if(batchSize <= 0){
+            throw new IllegalArgumentException("批次大小必须大于0");
+        }
+        if(linger < 0){
+            throw new IllegalArgumentException("凑批等待时间不能小于0");
+        }
+        this.bizName = bizName;
+        this.queue = new MpscBoundedQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = unit.toNanos(linger);
+        this.handler = handler;
+        this.executor = executor;
+        executor.execute(this::runLoop);
+    }
+
+    /**
+     * 提交数据，队列满时立即返回
+     * @param item
+     * @return 队列已满或已关闭时返回false
+     */
+    public boolean offer(T item){
+        activeProducers.incrementAndGet();
+        try {
+            if(closed || !queue.offer(item)){
+                rejectedCount.increment();
+                return false;
+            }
+            submitted();
+            return true;
+        } finally {
+            leave();
+        }
+    }
+
+    /**
+     * 提交数据，队列满时最多等待timeout
+     * @param item
+     * @param timeout
+     * @param unit
+     * @return 超时或已关闭时返回false
+     * @throws InterruptedException
+     */
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        activeProducers.incrementAndGet();
+        try {
+            while(!closed){
+                if(queue.offer(item)){
+                    submitted();
+                    return true;
+                }
+                if(deadline - System.nanoTime() <= 0){
+                    break;
+                }
+                backoff();
+            }
+            rejectedCount.increment();
+            return false;
+        } finally {
+            leave();
+        }
+    }
+
+    /**
+     * 提交数据，队列满时阻塞等待
+     * @param item
+     * @throws InterruptedException
+     */
+    public void put(T item) throws InterruptedException {
+        activeProducers.incrementAndGet();
+        try {
+            for(;;){
+                if(closed){
+                    rejectedCount.increment();
+                    throw new RejectedExecutionException("批量执行器已关闭！bizName=" + bizName);
+                }
+                if(queue.offer(item)){
+                    submitted();
+                    return;
+                }
+                backoff();
+            }
+        } finally {
+            leave();
+        }
+    }
+
+    /**
+     * 关闭：不再接收数据，已提交的数据（包括关闭时正在提交成功的数据）处理完成后消费循环退出
+     */
+    public void close(){
+        closed = true;
+        LockSupport.unpark(consumer);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void leave(){
+        // 最后一个生产者离开时唤醒消费线程，使其尽快确认能否退出
+        if(activeProducers.decrementAndGet() == 0 && closed){
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void submitted(){
+        submittedCount.increment();
+        if(queue.size() >= wakeThreshold){
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void backoff() throws InterruptedException {
+        // 队列满说明消费线程可能在凑批，唤醒尽快处理
+        LockSupport.unpark(consumer);
+        LockSupport.parkNanos(this, BACKOFF_NANOS);
+        if(Thread.interrupted()){
+            throw new InterruptedException();
+        }
+    }
+
+    private void runLoop(){
+        consumer = Thread.currentThread();
+        List<T> batch = new ArrayList<>(batchSize);
+        long firstNanos = 0;
+        try {
+            for(;;){
+                if(Thread.currentThread().isInterrupted()){
+                    // 线程池被强制关闭
+                    closed = true;
+                }
+                boolean wasEmpty = batch.isEmpty();
+                queue.drainTo(batch, batchSize - batch.size());
+                if(wasEmpty && !batch.isEmpty()){
+                    firstNanos = System.nanoTime();
+                }
+
+                long waitNanos;
+                if(batch.isEmpty()){
+                    // 先确认没有正在提交的生产者，再确认队列为空：生产者先登记再检查closed，二者不会同时错过
+                    if(closed && activeProducers.get() == 0 && queue.isEmpty()){
+                        break;
+                    }
+                    wakeThreshold = 1;
+                    waitNanos = MAX_IDLE_NANOS;
+                }else{
+                    waitNanos = lingerNanos - (System.nanoTime() - firstNanos);
+                    if(batch.size() >= batchSize || waitNanos <= 0 || closed){
+                        flush(batch, firstNanos);
+                        batch = new ArrayList<>(batchSize);
+                        continue;
+                    }
+                    wakeThreshold = batchSize - batch.size();
+                }
+                // 设置唤醒条件后再检查一次，避免与生产者之间丢失唤醒
+                if(queue.size() < wakeThreshold && (!closed || activeProducers.get() > 0)){
+                    LockSupport.parkNanos(this, waitNanos);
+                }
+                wakeThreshold = Integer.MAX_VALUE;
+            }
+        } finally {
+            // 消费循环异常退出（如批处理器抛出Error）时也标记为已关闭，生产者立即失败而不是一直阻塞
+            closed = true;
+            wakeThreshold = Integer.MAX_VALUE;
+            log.info("[batching_executor]批量执行器已退出！bizName=" + bizName + "，未处理数量=" + queue.size());
+        }
+    }
+
+    private void flush(List<T> batch, long firstNanos){
+        long start = System.nanoTime();
+        queueWaitHistogram.record(start - firstNanos);
+        try {
+            handler.accept(batch);
+            processedCount.add(batch.size());
+        } catch (Throwable t) {
+            // 包括Error，单批失败不能终止消费线程
+            failedBatchCount.increment();
+            log.error("[batching_executor]批处理失败！bizName=" + bizName + "，size=" + batch.size(), t);
+        }
+        runTimeHistogram.record(System.nanoTime() - start);
+        batchCount.increment();
+    }
+
+    /**
+     * 待处理数量估算值
+     * @return
+     */
+    public int getPendingCount(){
+        return queue.size();
+    }
+
+    public int getCapacity(){
+        return queue.getCapacity();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getLingerNanos() {
+        return lingerNanos;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getProcessedCount() {
+        return processedCount.sum();
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount.sum();
+    }
+
+    /**
+     * 每批从第一条数据出队到开始处理的等待时间
+     * @return
+     */
+    @Override
+    public LatencyHistogram getQueueWaitHistogram() {
+        return queueWaitHistogram;
+    }
+
+    /**
+     * 每批处理耗时
+     * @return
+     */
+    @Override
+    public LatencyHistogram getRunTimeHistogram() {
+        return runTimeHistogram;
+    }
+}
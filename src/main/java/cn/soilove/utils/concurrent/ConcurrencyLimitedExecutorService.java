@@ -0,0 +1,147 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限制并发数的执行器
+ * <pre>
+ *     每个任务提交后立即交给底层执行器，在任务内部获取信号量后才执行业务逻辑，
+ *     适合包装每任务一个虚拟线程的执行器：等待许可的任务只占用廉价的虚拟线程，
+ *     同时保证同一时刻访问下游的任务数不超过限制
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:52
+ **/
+public class ConcurrencyLimitedExecutorService extends AbstractExecutorService implements InstrumentedExecutor {
+
+    private final ExecutorService delegate;
+    private final Semaphore semaphore;
+    private final int maxConcurrency;
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * @param delegate 底层执行器
+     * @param maxConcurrency 最大并发数，小于等于0表示不限制
+     */
+    public ConcurrencyLimitedExecutorService(ExecutorService delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.semaphore = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if(command == null){
+            throw new NullPointerException();
+        }
+        long enqueueNanos = System.nanoTime();
+        Object context = ContextPropagation.capture();
+        try {
+            delegate.execute(() -> {
+                if(semaphore != null){
+                    try {
+                        semaphore.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                try {
+                    long start = System.nanoTime();
+                    queueWaitHistogram.record(start - enqueueNanos);
+                    Object backup = ContextPropagation.restore(context);
+                    try {
+                        command.run();
+                    } finally {
+                        ContextPropagation.reset(backup);
+                        runTimeHistogram.record(System.nanoTime() - start);
+                    }
+                } finally {
+                    if(semaphore != null){
+                        semaphore.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * 最大并发数，小于等于0表示不限制
+     * @return
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 正在执行的任务数，不限制并发时返回0
+     * @return
+     */
+    public int getActiveCount() {
+        return semaphore == null ? 0 : maxConcurrency - semaphore.availablePermits();
+    }
+
+    /**
+     * 等待许可的任务数估算值
+     * @return
+     */
+    public int getWaitingCount() {
+        return semaphore == null ? 0 : semaphore.getQueueLength();
+    }
+
+    public ExecutorService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public LatencyHistogram getQueueWaitHistogram() {
+        return queueWaitHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getRunTimeHistogram() {
+        return runTimeHistogram;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
@@ -0,0 +1,162 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * 线程上下文传递
+ * <pre>
+ *     未开启时capture返回null、wrap直接返回原任务，不产生额外对象；
+ *     开启后只有一个传递器时直接保存其快照，多个时保存为数组
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:57
+ **/
+public final class ContextPropagation {
+
+    private static final ContextPropagator[] NONE = new ContextPropagator[0];
+
+    private static volatile ContextPropagator[] propagators = NONE;
+
+    private ContextPropagation() {
+    }
+
+    /**
+     * 设置传递器，为空时关闭上下文传递
+     * @param contextPropagators
+     */
+    public static void setPropagators(ContextPropagator... contextPropagators){
+        for(ContextPropagator propagator : contextPropagators){
+            Objects.requireNonNull(propagator);
+        }
+        propagators = contextPropagators.length == 0 ? NONE : contextPropagators.clone();
+    }
+
+    /**
+     * 是否开启
+     * @return
+     */
+    public static boolean isEnabled(){
+        return propagators.length > 0;
+    }
+
+    /**
+     * 在调用线程采集上下文
+     * @return 未开启或无上下文时返回null
+     */
+    public static Object capture(){
+        ContextPropagator[] current = propagators;
+        if(current.length == 0){
+            return null;
+        }
+        if(current.length == 1){
+            Object captured = current[0].capture();
+            return captured == null ? null : new Snapshot(current, captured);
+        }
+        Object[] values = new Object[current.length];
+        boolean empty = true;
+        for(int i = 0; i < current.length; i++){
+            values[i] = current[i].capture();
+            empty &= values[i] == null;
+        }
+        return empty ? null : new Snapshot(current, values);
+    }
+
+    /**
+     * 在工作线程恢复上下文
+     * @param captured capture的返回值
+     * @return 工作线程原有上下文，用于reset；captured为null时返回null
+     */
+    public static Object restore(Object captured){
+        if(captured == null){
+            return null;
+        }
+        Snapshot snapshot = (Snapshot) captured;
+        ContextPropagator[] current = snapshot.propagators;
+        if(current.length == 1){
+            return new Snapshot(current, current[0].restore(snapshot.value));
+        }
+        Object[] values = (Object[]) snapshot.value;
+        Object[] backups = new Object[current.length];
+        for(int i = 0; i < current.length; i++){
+            backups[i] = current[i].restore(values[i]);
+        }
+        return new Snapshot(current, backups);
+    }
+
+    /**
+     * 恢复工作线程原有上下文
+     * @param backup restore的返回值
+     */
+    public static void reset(Object backup){
+        if(backup == null){
+            return;
+        }
+        Snapshot snapshot = (Snapshot) backup;
+        ContextPropagator[] current = snapshot.propagators;
+        if(current.length == 1){
+            current[0].reset(snapshot.value);
+            return;
+        }
+        Object[] values = (Object[]) snapshot.value;
+        // 与restore相反的顺序恢复
+        for(int i = current.length - 1; i >= 0; i--){
+            current[i].reset(values[i]);
+        }
+    }
+
+    /**
+     * 包装任务，执行时恢复提交线程的上下文
+     * @param task
+     * @return 未开启或无上下文时返回原任务
+     */
+    public static Runnable wrap(Runnable task){
+        Object captured = capture();
+        if(captured == null){
+            return task;
+        }
+        return () -> {
+            Object backup = restore(captured);
+            try {
+                task.run();
+            } finally {
+                reset(backup);
+            }
+        };
+    }
+
+    /**
+     * 包装任务，执行时恢复提交线程的上下文
+     * @param task
+     * @param <T>
+     * @return 未开启或无上下文时返回原任务
+     */
+    public static <T> Callable<T> wrap(Callable<T> task){
+        Object captured = capture();
+        if(captured == null){
+            return task;
+        }
+        return () -> {
+            Object backup = restore(captured);
+            try {
+                return task.call();
+            } finally {
+                reset(backup);
+            }
+        };
+    }
+
+    /**
+     * 快照与采集时的传递器绑定，传递器在任务排队期间被修改也能正确恢复
+     */
+    private static final class Snapshot {
+        private final ContextPropagator[] propagators;
+        private final Object value;
+
+        private Snapshot(ContextPropagator[] propagators, Object value) {
+            this.propagators = propagators;
+            this.value = value;
+        }
+    }
+}
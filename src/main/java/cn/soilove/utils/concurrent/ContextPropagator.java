@@ -0,0 +1,33 @@
+package cn.soilove.utils.concurrent;
+
+/**
+ * 线程上下文传递SPI
+ * <pre>
+ *     提交任务时在调用线程capture，执行前在工作线程restore，执行后reset恢复工作线程原有上下文，
+ *     可用于传递MDC、链路ID、请求级ThreadLocal等
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:57
+ **/
+public interface ContextPropagator {
+
+    /**
+     * 在调用线程采集上下文
+     * @return 上下文快照，无上下文时建议返回null以减少对象分配
+     */
+    Object capture();
+
+    /**
+     * 在工作线程恢复上下文
+     * @param captured capture的返回值
+     * @return 工作线程原有上下文，用于reset
+     */
+    Object restore(Object captured);
+
+    /**
+     * 任务执行后恢复工作线程原有上下文
+     * @param backup restore的返回值
+     */
+    void reset(Object backup);
+}
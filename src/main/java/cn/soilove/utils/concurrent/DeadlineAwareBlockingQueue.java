@@ -0,0 +1,65 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 按优先级出队并丢弃过期任务的阻塞队列
+ * <pre>
+ *     元素必须是PriorityTask；工作线程取任务时跳过已超过截止时间的任务并回调expiredHandler，
+ *     过期任务不会占用工作线程执行
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:55
+ **/
+public class DeadlineAwareBlockingQueue extends PriorityBlockingQueue<Runnable> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Consumer<PriorityTask> expiredHandler;
+
+    public DeadlineAwareBlockingQueue(Consumer<PriorityTask> expiredHandler) {
+        this.expiredHandler = expiredHandler;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        for(;;){
+            Runnable r = super.take();
+            if(!expired(r)){
+                return r;
+            }
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for(;;){
+            Runnable r = super.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if(r == null || !expired(r)){
+                return r;
+            }
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        for(;;){
+            Runnable r = super.poll();
+            if(r == null || !expired(r)){
+                return r;
+            }
+        }
+    }
+
+    private boolean expired(Runnable r){
+        if(r instanceof PriorityTask && ((PriorityTask) r).isExpired(System.nanoTime())){
+            expiredHandler.accept((PriorityTask) r);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,396 @@
+package cn.soilove.utils.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 时间轮定时器
+ * <pre>
+ *     适合大量短时超时任务（订单超时、重试等）：添加和取消都是O(1)，精度为一个tick；
+ *     - 新任务先进入无锁队列，由工作线程每个tick转移到对应槽位
+ *     - 超过一圈的任务记录剩余圈数，每转一圈减1
+ *     - 到期任务在工作线程中执行，耗时任务应在任务内部转交其他线程池
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:00
+ **/
+@Slf4j
+public class HashedWheelTimer implements InstrumentedExecutor {
+
+    /**
+     * 每个tick最多转移的新任务数，避免新任务过多时工作线程卡在转移上
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+    private final String bizName;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long maxPendingTimeouts;
+    private final ExecutorService executor;
+    private final long startTime;
+
+    private final Queue<Timeout> timeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+
+    private final LongAdder scheduledCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LatencyHistogram lateHistogram = new LatencyHistogram();
+    private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+
+    private volatile boolean stopped;
+
+    /**
+     * @param bizName 业务名称，用于日志
+     * @param tickDuration 每个tick的时长，即定时精度
+     * @param unit
+     * @param ticksPerWheel 每圈槽位数，向上取整为2的幂
+     * @param maxPendingTimeouts 最大待执行任务数，小于等于0表示不限制
+     * @param executor 运行工作线程的线程池，工作循环会一直占用其中一个线程
+     */
+    public HashedWheelTimer(String bizName, long tickDuration, TimeUnit unit, int ticksPerWheel,
+                            long maxPendingTimeouts, ExecutorService executor) {
+        if(tickDuration <= 0){
+            throw new IllegalArgumentException("tick时长必须大于0");
+        }
+        if(ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)){
+            throw new IllegalArgumentException("每圈槽位数参数错误！ticksPerWheel=" + ticksPerWheel);
+        }
+        this.bizName = bizName;
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        int length = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[length];
+        for(int i = 0; i < length; i++){
+            wheel[i] = new Bucket();
+        }
+        this.mask = length - 1;
+        this.maxPendingTimeouts = maxPendingTimeouts;
+        this.executor = executor;
+        this.startTime = System.nanoTime();
+        executor.execute(this::run);
+    }
+
+    /**
+     * 添加定时任务
+     * @param task
+     * @param delay 延迟时间
+     * @param unit
+     * @return 可用于取消
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit){
+        if(task == null){
+            throw new NullPointerException();
+        }
+        if(stopped){
+            rejectedCount.increment();
+            throw new RejectedExecutionException("时间轮定时器已停止！bizName=" + bizName);
+        }
+        long pending = pendingTimeouts.incrementAndGet();
+        if(maxPendingTimeouts > 0 && pending > maxPendingTimeouts){
+            pendingTimeouts.decrementAndGet();
+            rejectedCount.increment();
+            throw new RejectedExecutionException("时间轮待执行任务数超限！bizName=" + bizName + "，maxPendingTimeouts=" + maxPendingTimeouts);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+        if(delay > 0 && deadline < 0){
+            // 延迟过大导致溢出，视为永不到期
+            deadline = Long.MAX_VALUE;
+        }
+        Timeout timeout = new Timeout(this, ContextPropagation.wrap(task), deadline);
+        timeouts.add(timeout);
+        scheduledCount.increment();
+        return timeout;
+    }
+
+    /**
+     * 停止定时器，未执行的任务被丢弃
+     */
+    public void stop(){
+        stopped = true;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    private void run(){
+        long tick = 0;
+        try {
+            while(!stopped){
+                long deadline = waitForNextTick(tick);
+                if(deadline < 0){
+                    break;
+                }
+                processCancelledTasks();
+                transferTimeoutsToBuckets(tick);
+                expireTimeouts(wheel[(int) (tick & mask)], deadline);
+                tick++;
+            }
+        } finally {
+            // 工作循环异常退出时也标记为已停止，拒绝新任务并允许按bizName重新创建
+            stopped = true;
+            log.info("[hashed_wheel_timer]时间轮定时器已停止！bizName=" + bizName + "，丢弃未执行任务=" + pendingTimeouts.get());
+        }
+    }
+
+    /**
+     * 等待下一个tick
+     * @param tick
+     * @return 当前相对启动时间的纳秒数，停止时返回-1
+     */
+    private long waitForNextTick(long tick){
+        long deadline = tickNanos * (tick + 1);
+        for(;;){
+            long current = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - current + 999999) / 1000000;
+            if(sleepMillis <= 0){
+                return current;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                // 线程池被强制关闭
+                return -1;
+            }
+            if(stopped){
+                return -1;
+            }
+        }
+    }
+
+    private void processCancelledTasks(){
+        for(;;){
+            Timeout timeout = cancelledTimeouts.poll();
+            if(timeout == null){
+                return;
+            }
+            timeout.remove();
+        }
+    }
+
+    private void transferTimeoutsToBuckets(long tick){
+        for(int i = 0; i < MAX_TRANSFER_PER_TICK; i++){
+            Timeout timeout = timeouts.poll();
+            if(timeout == null){
+                return;
+            }
+            if(timeout.state != Timeout.ST_INIT){
+                // 已取消，由processCancelledTasks释放计数
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已过期的任务放到当前槽位，本tick执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Bucket bucket, long deadline){
+        Timeout timeout = bucket.head;
+        while(timeout != null){
+            Timeout next = timeout.next;
+            if(timeout.remainingRounds <= 0){
+                timeout.remove();
+                timeout.expire(deadline);
+            }else if(timeout.state == Timeout.ST_CANCELLED){
+                timeout.remove();
+            }else{
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    private void runTask(Timeout timeout, long deadline){
+        lateHistogram.record(deadline - timeout.deadline);
+        long start = System.nanoTime();
+        try {
+            timeout.task.run();
+        } catch (Throwable t) {
+            // 包括Error，单个任务失败不能终止工作线程
+            log.error("[hashed_wheel_timer]定时任务执行失败！bizName=" + bizName, t);
+        } finally {
+            runTimeHistogram.record(System.nanoTime() - start);
+            expiredCount.increment();
+        }
+    }
+
+    /**
+     * 待执行任务数
+     * @return
+     */
+    public long getPendingTimeouts(){
+        return pendingTimeouts.get();
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public int getTicksPerWheel() {
+        return wheel.length;
+    }
+
+    public long getMaxPendingTimeouts() {
+        return maxPendingTimeouts;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public long getScheduledCount() {
+        return scheduledCount.sum();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.sum();
+    }
+
+    /**
+     * 任务实际执行时间相对计划时间的延迟
+     * @return
+     */
+    @Override
+    public LatencyHistogram getQueueWaitHistogram() {
+        return lateHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getRunTimeHistogram() {
+        return runTimeHistogram;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        /**
+         * 相对定时器启动时间的纳秒数
+         */
+        private final long deadline;
+        private volatile int state = ST_INIT;
+
+        // 以下字段仅工作线程访问
+        private long remainingRounds;
+        private boolean removed;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务
+         * @return 已执行或已取消时返回false
+         */
+        public boolean cancel(){
+            if(!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)){
+                return false;
+            }
+            timer.cancelledCount.increment();
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled(){
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired(){
+            return state == ST_EXPIRED;
+        }
+
+        public Runnable getTask() {
+            return task;
+        }
+
+        private void expire(long now){
+            if(STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)){
+                timer.runTask(this, now);
+            }
+        }
+
+        /**
+         * 从槽位移除并释放待执行计数，只生效一次
+         */
+        private void remove(){
+            if(bucket != null){
+                bucket.remove(this);
+            }
+            if(!removed){
+                removed = true;
+                timer.pendingTimeouts.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 槽位，双向链表，仅工作线程访问
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout){
+            timeout.bucket = this;
+            if(head == null){
+                head = tail = timeout;
+            }else{
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout){
+            if(timeout.prev != null){
+                timeout.prev.next = timeout.next;
+            }else{
+                head = timeout.next;
+            }
+            if(timeout.next != null){
+                timeout.next.prev = timeout.prev;
+            }else{
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
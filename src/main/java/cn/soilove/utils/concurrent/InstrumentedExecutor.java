@@ -0,0 +1,28 @@
+package cn.soilove.utils.concurrent;
+
+/**
+ * 带监控统计的执行器
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:50
+ **/
+public interface InstrumentedExecutor {
+
+    /**
+     * 任务排队耗时
+     * @return
+     */
+    LatencyHistogram getQueueWaitHistogram();
+
+    /**
+     * 任务执行耗时
+     * @return
+     */
+    LatencyHistogram getRunTimeHistogram();
+
+    /**
+     * 被拒绝的任务数量
+     * @return
+     */
+    long getRejectedCount();
+}
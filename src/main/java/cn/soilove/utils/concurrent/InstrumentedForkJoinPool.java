@@ -0,0 +1,127 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带监控统计的ForkJoinPool
+ * <pre>
+ *     统计通过execute/submit提交的Runnable、Callable的排队耗时和执行耗时，开启上下文传递时同时传递上下文；
+ *     ForkJoinTask及其fork出的子任务不在统计范围内，可通过ForkJoinPool自身的steal、queued等计数观察
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:56
+ **/
+public class InstrumentedForkJoinPool extends ForkJoinPool implements InstrumentedExecutor {
+
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * @param bizName 线程名前缀
+     * @param parallelism 并行度
+     * @param asyncMode true：本地任务先进先出，适合事件类任务；false：后进先出，适合递归拆分的任务
+     */
+    public InstrumentedForkJoinPool(String bizName, int parallelism, boolean asyncMode) {
+        super(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(bizName + "-" + thread.getPoolIndex());
+            return thread;
+        }, null, asyncMode);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            super.execute(timed(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public ForkJoinTask<?> submit(Runnable task) {
+        try {
+            return super.submit(timed(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(Runnable task, T result) {
+        try {
+            return super.submit(timed(task), result);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(Callable<T> task) {
+        if(task == null){
+            throw new NullPointerException();
+        }
+        long enqueueNanos = System.nanoTime();
+        Object context = ContextPropagation.capture();
+        try {
+            return super.submit(() -> {
+                long start = System.nanoTime();
+                queueWaitHistogram.record(start - enqueueNanos);
+                Object backup = ContextPropagation.restore(context);
+                try {
+                    return task.call();
+                } finally {
+                    ContextPropagation.reset(backup);
+                    runTimeHistogram.record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+    }
+
+    private Runnable timed(Runnable task){
+        if(task == null){
+            throw new NullPointerException();
+        }
+        long enqueueNanos = System.nanoTime();
+        Object context = ContextPropagation.capture();
+        return () -> {
+            long start = System.nanoTime();
+            queueWaitHistogram.record(start - enqueueNanos);
+            Object backup = ContextPropagation.restore(context);
+            try {
+                task.run();
+            } finally {
+                ContextPropagation.reset(backup);
+                runTimeHistogram.record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    @Override
+    public LatencyHistogram getQueueWaitHistogram() {
+        return queueWaitHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getRunTimeHistogram() {
+        return runTimeHistogram;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
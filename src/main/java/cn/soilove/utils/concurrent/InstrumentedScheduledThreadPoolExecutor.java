@@ -0,0 +1,106 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带监控统计的定时线程池
+ * <pre>
+ *     排队耗时统计任务到期后等待执行的时间（实际开始时间 - 计划执行时间），执行耗时统计每次执行的时间
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:50
+ **/
+public class InstrumentedScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor implements InstrumentedExecutor {
+
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+
+    public InstrumentedScheduledThreadPoolExecutor(int corePoolSize) {
+        this(corePoolSize, Executors.defaultThreadFactory(), new AbortPolicy());
+    }
+
+    public InstrumentedScheduledThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+        super(corePoolSize, threadFactory, handler);
+        super.setRejectedExecutionHandler(countingHandler(handler));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return super.schedule(command == null ? null : ContextPropagation.wrap(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return super.schedule(callable == null ? null : ContextPropagation.wrap(callable), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        return super.scheduleAtFixedRate(command == null ? null : ContextPropagation.wrap(command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        return super.scheduleWithFixedDelay(command == null ? null : ContextPropagation.wrap(command), initialDelay, delay, unit);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        long now = System.nanoTime();
+        startNanos.set(now);
+        if(r instanceof RunnableScheduledFuture){
+            // 到期后的等待时间
+            long delay = ((RunnableScheduledFuture<?>) r).getDelay(TimeUnit.NANOSECONDS);
+            queueWaitHistogram.record(-delay);
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        Long start = startNanos.get();
+        if(start != null){
+            runTimeHistogram.record(System.nanoTime() - start);
+            startNanos.remove();
+        }
+    }
+
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(countingHandler(handler));
+    }
+
+    private RejectedExecutionHandler countingHandler(RejectedExecutionHandler handler){
+        return (r, executor) -> {
+            rejectedCount.increment();
+            handler.rejectedExecution(r, executor);
+        };
+    }
+
+    @Override
+    public LatencyHistogram getQueueWaitHistogram() {
+        return queueWaitHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getRunTimeHistogram() {
+        return runTimeHistogram;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
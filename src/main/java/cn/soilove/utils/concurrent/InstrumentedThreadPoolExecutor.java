@@ -0,0 +1,166 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带监控统计的线程池
+ * <pre>
+ *     提交的任务包装为TimedRunnable，执行前记录排队耗时，执行后记录执行耗时；
+ *     拒绝策略外包一层计数，原有拒绝策略照常执行；
+ *     拒绝策略、shutdownNow、remove、purge面向调用方提交的原始任务，getQueue()中为包装后的任务
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:50
+ **/
+public class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor implements InstrumentedExecutor {
+
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runTimeHistogram = new LatencyHistogram();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public InstrumentedThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                          BlockingQueue<Runnable> workQueue) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, Executors.defaultThreadFactory(), new AbortPolicy());
+    }
+
+    public InstrumentedThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                          BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, new AbortPolicy());
+    }
+
+    public InstrumentedThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                          BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory,
+                                          RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        super.setRejectedExecutionHandler(countingHandler(handler));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(wrap(command));
+    }
+
+    /**
+     * 包装提交的任务，子类可扩展为携带更多信息的TimedRunnable
+     * @param command
+     * @return
+     */
+    protected TimedRunnable wrap(Runnable command){
+        if(command instanceof TimedRunnable){
+            return (TimedRunnable) command;
+        }
+        return new TimedRunnable(command).markInternal();
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if(r instanceof TimedRunnable){
+            TimedRunnable task = (TimedRunnable) r;
+            long now = System.nanoTime();
+            task.setStartNanos(now);
+            queueWaitHistogram.record(now - task.getEnqueueNanos());
+            task.restoreContext();
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if(r instanceof TimedRunnable){
+            TimedRunnable task = (TimedRunnable) r;
+            runTimeHistogram.record(System.nanoTime() - task.getStartNanos());
+            task.resetContext();
+        }
+    }
+
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(countingHandler(handler));
+    }
+
+    private RejectedExecutionHandler countingHandler(RejectedExecutionHandler handler){
+        return (r, executor) -> {
+            rejectedCount.increment();
+            onDiscarded(r);
+            handler.rejectedExecution(unwrap(r), executor);
+        };
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> drained = super.shutdownNow();
+        List<Runnable> tasks = new ArrayList<>(drained.size());
+        for(Runnable r : drained){
+            onDiscarded(r);
+            tasks.add(unwrap(r));
+        }
+        return tasks;
+    }
+
+    /**
+     * 按调用方提交的原始任务从队列中移除
+     * @param task
+     * @return
+     */
+    @Override
+    public boolean remove(Runnable task) {
+        for(Runnable r : getQueue()){
+            if((r == task || unwrap(r) == task) && super.remove(r)){
+                onDiscarded(r);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 移除队列中已取消的Future，按包装内的原始任务判断
+     */
+    @Override
+    public void purge() {
+        for(Runnable r : getQueue()){
+            Runnable task = unwrap(r);
+            if(task instanceof Future && ((Future<?>) task).isCancelled() && super.remove(r)){
+                onDiscarded(r);
+            }
+        }
+    }
+
+    /**
+     * 任务未执行即被丢弃时回调：被拒绝（在拒绝策略之前执行）、shutdownNow取出、remove或purge移除，
+     * 子类可用于释放任务占用的资源
+     * @param r 被丢弃的任务（已包装）
+     */
+    protected void onDiscarded(Runnable r){
+    }
+
+    private static Runnable unwrap(Runnable r){
+        return r instanceof TimedRunnable ? ((TimedRunnable) r).unwrap() : r;
+    }
+
+    @Override
+    public LatencyHistogram getQueueWaitHistogram() {
+        return queueWaitHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getRunTimeHistogram() {
+        return runTimeHistogram;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
@@ -0,0 +1,140 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时直方图
+ * <pre>
+ *     按2的幂划分桶记录纳秒耗时，记录操作无锁且不分配对象，
+ *     分位数取所在桶的上界，误差在2倍以内，适合监控场景
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:50
+ **/
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for(int i = 0; i < BUCKETS; i++){
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     * @param nanos 单位：纳秒
+     */
+    public void record(long nanos){
+        if(nanos < 0){
+            nanos = 0;
+        }
+        buckets[Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(nanos))].increment();
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * 获取快照，统计值为创建以来的累计值
+     * @return
+     */
+    public Snapshot snapshot(){
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        long maxNanos = max.get();
+        return new Snapshot(total,
+                total > 0 ? sum.sum() / total : 0,
+                percentile(counts, total, 0.5, maxNanos),
+                percentile(counts, total, 0.9, maxNanos),
+                percentile(counts, total, 0.99, maxNanos),
+                maxNanos);
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long maxNanos){
+        if(total == 0){
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long cumulative = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            cumulative += counts[i];
+            if(cumulative >= rank){
+                long upper = i == 0 ? 0 : (i >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+                return Math.min(upper, maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * 直方图快照，单位：纳秒
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long mean;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long max;
+
+        public Snapshot(long count, long mean, long p50, long p90, long p99, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP90() {
+            return p90;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count
+                    + ", mean=" + toMillis(mean) + "ms"
+                    + ", p50=" + toMillis(p50) + "ms"
+                    + ", p90=" + toMillis(p90) + "ms"
+                    + ", p99=" + toMillis(p99) + "ms"
+                    + ", max=" + toMillis(max) + "ms}";
+        }
+
+        private static double toMillis(long nanos){
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package cn.soilove.utils.concurrent;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * MDC上下文传递
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:57
+ **/
+public class MdcContextPropagator implements ContextPropagator {
+
+    public static final MdcContextPropagator INSTANCE = new MdcContextPropagator();
+
+    @Override
+    public Object capture() {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return context == null || context.isEmpty() ? null : context;
+    }
+
+    @Override
+    public Object restore(Object captured) {
+        Map<String, String> backup = MDC.getCopyOfContextMap();
+        set(captured);
+        return backup;
+    }
+
+    @Override
+    public void reset(Object backup) {
+        set(backup);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void set(Object context){
+        if(context == null){
+            MDC.clear();
+        }else{
+            MDC.setContextMap((Map<String, String>) context);
+        }
+    }
+}
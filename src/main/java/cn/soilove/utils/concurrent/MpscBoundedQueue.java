@@ -0,0 +1,120 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 无锁有界多生产者单消费者队列
+ * <pre>
+ *     环形数组 + 每个槽位的序号（Vyukov算法）：生产者CAS抢占写入位置，消费者单线程顺序读取，
+ *     入队不分配节点对象；容量向上取整为2的幂
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:59
+ **/
+public class MpscBoundedQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * 仅消费者线程写入
+     */
+    private volatile long head;
+
+    public MpscBoundedQueue(int capacity) {
+        if(capacity <= 0 || capacity > (1 << 30)){
+            throw new IllegalArgumentException("队列容量参数错误！capacity=" + capacity);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for(int i = 0; i < this.capacity; i++){
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队，可多线程调用
+     * @param e
+     * @return 队列已满时返回false
+     */
+    public boolean offer(E e){
+        if(e == null){
+            throw new NullPointerException();
+        }
+        for(;;){
+            long t = tail.get();
+            int index = (int) (t & mask);
+            long dif = sequences.get(index) - t;
+            if(dif == 0){
+                if(tail.compareAndSet(t, t + 1)){
+                    buffer.lazySet(index, e);
+                    sequences.set(index, t + 1);
+                    return true;
+                }
+            }else if(dif < 0){
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 出队，仅消费者线程调用
+     * @return 队列为空时返回null
+     */
+    public E poll(){
+        long h = head;
+        int index = (int) (h & mask);
+        if(sequences.get(index) != h + 1){
+            return null;
+        }
+        E e = buffer.get(index);
+        buffer.lazySet(index, null);
+        sequences.set(index, h + capacity);
+        head = h + 1;
+        return e;
+    }
+
+    /**
+     * 批量出队，仅消费者线程调用
+     * @param c
+     * @param maxElements
+     * @return 出队数量
+     */
+    public int drainTo(Collection<? super E> c, int maxElements){
+        int n = 0;
+        while(n < maxElements){
+            E e = poll();
+            if(e == null){
+                break;
+            }
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * 队列长度估算值
+     * @return
+     */
+    public int size(){
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,69 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带优先级和截止时间的任务
+ * <pre>
+ *     排序规则：优先级高的在前；优先级相同时截止时间早的在前，有截止时间的在无截止时间的之前；其余按提交顺序
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:55
+ **/
+public class PriorityTask extends TimedRunnable implements Comparable<PriorityTask> {
+
+    /**
+     * 默认优先级
+     */
+    public static final int DEF_PRIORITY = 0;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final int priority;
+    /**
+     * 截止时间（System.nanoTime），0表示无截止时间
+     */
+    private final long deadlineNanos;
+    private final long seq = SEQUENCE.getAndIncrement();
+
+    public PriorityTask(Runnable delegate, int priority, long deadlineNanos) {
+        super(delegate);
+        this.priority = priority;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 是否已超过截止时间
+     * @param now System.nanoTime()
+     * @return
+     */
+    public boolean isExpired(long now){
+        return deadlineNanos != 0 && now - deadlineNanos > 0;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    @Override
+    public int compareTo(PriorityTask o) {
+        if(priority != o.priority){
+            return priority > o.priority ? -1 : 1;
+        }
+        if(deadlineNanos != o.deadlineNanos){
+            if(deadlineNanos == 0){
+                return 1;
+            }
+            if(o.deadlineNanos == 0){
+                return -1;
+            }
+            return deadlineNanos - o.deadlineNanos < 0 ? -1 : 1;
+        }
+        return Long.compare(seq, o.seq);
+    }
+}
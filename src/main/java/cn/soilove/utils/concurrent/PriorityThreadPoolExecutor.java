@@ -0,0 +1,116 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 优先级线程池
+ * <pre>
+ *     任务按优先级和截止时间排序执行，超过截止时间仍未开始执行的任务直接丢弃并计数，
+ *     通过submit提交的任务被丢弃时Future会被取消，调用方get()抛出CancellationException
+ *
+ *         // 示例
+ *         executor.execute(() -> batchJob());                                   // 默认优先级0
+ *         Future<Order> f = executor.submit(() -> queryOrder(id), 10, 200, TimeUnit.MILLISECONDS);
+ * </pre>
+ * 队列无界，线程数固定为corePoolSize
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:55
+ **/
+public class PriorityThreadPoolExecutor extends InstrumentedThreadPoolExecutor {
+
+    private final LongAdder expiredCount;
+
+    public PriorityThreadPoolExecutor(int nThreads, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+        this(nThreads, threadFactory, handler, new LongAdder());
+    }
+
+    private PriorityThreadPoolExecutor(int nThreads, ThreadFactory threadFactory, RejectedExecutionHandler handler, LongAdder expiredCount) {
+        super(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+                new DeadlineAwareBlockingQueue(task -> onExpired(task, expiredCount)), threadFactory, handler);
+        this.expiredCount = expiredCount;
+    }
+
+    /**
+     * 按优先级执行
+     * @param command
+     * @param priority 优先级，越大越先执行
+     */
+    public void execute(Runnable command, int priority){
+        execute(new PriorityTask(command, priority, 0));
+    }
+
+    /**
+     * 按优先级执行，超过截止时间仍未开始执行则丢弃
+     * @param command
+     * @param priority 优先级，越大越先执行
+     * @param timeout 从提交开始计算的截止时间
+     * @param unit
+     */
+    public void execute(Runnable command, int priority, long timeout, TimeUnit unit){
+        execute(new PriorityTask(command, priority, deadline(timeout, unit)));
+    }
+
+    /**
+     * 按优先级提交，超过截止时间仍未开始执行则丢弃并取消Future
+     * @param task
+     * @param priority 优先级，越大越先执行
+     * @param timeout 从提交开始计算的截止时间
+     * @param unit
+     * @param <T>
+     * @return
+     */
+    public <T> Future<T> submit(Callable<T> task, int priority, long timeout, TimeUnit unit){
+        RunnableFuture<T> future = newTaskFor(task);
+        execute(new PriorityTask(future, priority, deadline(timeout, unit)).markInternal());
+        return future;
+    }
+
+    /**
+     * 按优先级提交
+     * @param task
+     * @param priority 优先级，越大越先执行
+     * @param <T>
+     * @return
+     */
+    public <T> Future<T> submit(Callable<T> task, int priority){
+        RunnableFuture<T> future = newTaskFor(task);
+        execute(new PriorityTask(future, priority, 0).markInternal());
+        return future;
+    }
+
+    @Override
+    protected TimedRunnable wrap(Runnable command) {
+        if(command instanceof PriorityTask){
+            return (PriorityTask) command;
+        }
+        return new PriorityTask(command, PriorityTask.DEF_PRIORITY, 0).markInternal();
+    }
+
+    /**
+     * 过期丢弃的任务数
+     * @return
+     */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    private static long deadline(long timeout, TimeUnit unit){
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        // 0表示无截止时间
+        return deadline == 0 ? 1 : deadline;
+    }
+
+    private static void onExpired(PriorityTask task, LongAdder expiredCount){
+        expiredCount.increment();
+        if(task.getDelegate() instanceof Future){
+            ((Future<?>) task.getDelegate()).cancel(false);
+        }
+    }
+}
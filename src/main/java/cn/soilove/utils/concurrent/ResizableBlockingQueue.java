@@ -0,0 +1,321 @@
+package cn.soilove.utils.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 容量可动态调整的有界阻塞队列
+ * <pre>
+ *     单锁 + notEmpty/notFull两个条件，容量调小时已入队的任务不会丢弃，
+ *     队列长度降到新容量以下后才接收新任务
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:51
+ **/
+public class ResizableBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private final ArrayDeque<E> items = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private volatile int capacity;
+
+    public ResizableBlockingQueue(int capacity) {
+        checkCapacity(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * 调整队列容量
+     * @param capacity 新容量
+     */
+    public void setCapacity(int capacity){
+        checkCapacity(capacity);
+        lock.lock();
+        try {
+            int old = this.capacity;
+            this.capacity = capacity;
+            if(capacity > old){
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static void checkCapacity(int capacity){
+        if(capacity <= 0){
+            throw new IllegalArgumentException("队列容量必须大于0！capacity=" + capacity);
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if(e == null){
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            if(items.size() >= capacity){
+                return false;
+            }
+            enqueue(e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        if(e == null){
+            throw new NullPointerException();
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while(items.size() >= capacity){
+                if(nanos <= 0){
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        if(e == null){
+            throw new NullPointerException();
+        }
+        lock.lockInterruptibly();
+        try {
+            while(items.size() >= capacity){
+                notFull.await();
+            }
+            enqueue(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while(items.isEmpty()){
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while(items.isEmpty()){
+                if(nanos <= 0){
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            return items.isEmpty() ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E peek() {
+        lock.lock();
+        try {
+            return items.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return Math.max(0, capacity - items.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if(o == null){
+            return false;
+        }
+        lock.lock();
+        try {
+            boolean removed = items.remove(o);
+            if(removed){
+                notFull.signal();
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        lock.lock();
+        try {
+            return items.contains(o);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            items.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if(c == this){
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int n = 0;
+            while(n < maxElements && !items.isEmpty()){
+                c.add(items.pollFirst());
+                n++;
+            }
+            if(n > 0){
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        lock.lock();
+        try {
+            return items.toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        lock.lock();
+        try {
+            return items.toArray(a);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 基于快照的迭代器，remove委托给队列的remove(Object)
+     * @return
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        Object[] snapshot = toArray();
+        return new Iterator<E>() {
+            private int cursor;
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.length;
+            }
+
+            @Override
+            public E next() {
+                if(cursor >= snapshot.length){
+                    throw new NoSuchElementException();
+                }
+                last = cursor;
+                return (E) snapshot[cursor++];
+            }
+
+            @Override
+            public void remove() {
+                if(last < 0){
+                    throw new IllegalStateException();
+                }
+                ResizableBlockingQueue.this.remove(snapshot[last]);
+                last = -1;
+            }
+        };
+    }
+
+    private void enqueue(E e){
+        items.addLast(e);
+        notEmpty.signal();
+    }
+
+    private E dequeue(){
+        E e = items.pollFirst();
+        if(items.size() < capacity){
+            notFull.signal();
+        }
+        return e;
+    }
+}
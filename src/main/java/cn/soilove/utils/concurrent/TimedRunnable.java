@@ -0,0 +1,80 @@
+package cn.soilove.utils.concurrent;
+
+/**
+ * 记录提交时间的任务包装，用于统计排队耗时与执行耗时，开启上下文传递时同时保存提交线程的上下文
+ *
+ * @author: agent
+ * @create: 2026-10-18 09:50
+ **/
+public class TimedRunnable implements Runnable {
+
+    private final Runnable delegate;
+    private final long enqueueNanos;
+    private final Object context;
+    private long startNanos;
+    private Object contextBackup;
+    /**
+     * 是否为线程池内部创建的包装，是则拒绝、shutdownNow、remove时对外暴露原始任务
+     */
+    private boolean internal;
+
+    public TimedRunnable(Runnable delegate) {
+        this.delegate = delegate;
+        this.enqueueNanos = System.nanoTime();
+        this.context = ContextPropagation.capture();
+    }
+
+    @Override
+    public void run() {
+        delegate.run();
+    }
+
+    public Runnable getDelegate() {
+        return delegate;
+    }
+
+    public long getEnqueueNanos() {
+        return enqueueNanos;
+    }
+
+    /**
+     * 标记为线程池内部创建的包装
+     * @return this
+     */
+    TimedRunnable markInternal(){
+        this.internal = true;
+        return this;
+    }
+
+    /**
+     * 对外暴露的任务：内部包装返回原始任务，调用方自行提交的TimedRunnable返回自身
+     * @return
+     */
+    Runnable unwrap(){
+        return internal ? delegate : this;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    void setStartNanos(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * 在工作线程恢复提交线程的上下文，执行前调用
+     */
+    void restoreContext(){
+        contextBackup = ContextPropagation.restore(context);
+    }
+
+    /**
+     * 恢复工作线程原有上下文，执行后调用
+     */
+    void resetContext(){
+        Object backup = contextBackup;
+        contextBackup = null;
+        ContextPropagation.reset(backup);
+    }
+}
@@ -0,0 +1,69 @@
+package cn.soilove.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 异步流水线：超时回调不占用定时器线程，不能使用内部线程池执行阶段
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class AsyncPipelineUtilsTest {
+
+    @Test(timeout = 10000)
+    public void timeoutCompletesOffTimerThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> fallbackThread = new AtomicReference<>();
+        String value = AsyncPipelineUtils.supply("slow", null, () -> {
+                    await(release);
+                    return "slow";
+                })
+                .timeout(50, TimeUnit.MILLISECONDS)
+                .fallback(e -> {
+                    fallbackThread.set(Thread.currentThread().getName());
+                    return e instanceof TimeoutException ? "timeout" : "error";
+                })
+                .join();
+        release.countDown();
+        assertEquals("timeout", value);
+
+        // 与流水线使用同一个定时器，取得定时器线程
+        AtomicReference<Thread> timerThread = new AtomicReference<>();
+        CountDownLatch fired = new CountDownLatch(1);
+        ThreadPoolUtils.newHashedWheelTimer(AsyncPipelineUtils.TIMER_BIZ_NAME, 10, TimeUnit.MILLISECONDS, 512, 0)
+                .newTimeout(() -> {
+                    timerThread.set(Thread.currentThread());
+                    fired.countDown();
+                }, 1, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertFalse(timerThread.get().getName().equals(fallbackThread.get()));
+    }
+
+    @Test
+    public void getExecutorHidesWheelTimerThread(){
+        ThreadPoolUtils.newHashedWheelTimer("async-pipeline-test-wheel", 10, TimeUnit.MILLISECONDS, 64, 0);
+        try {
+            assertNull(ThreadPoolUtils.getExecutor("async-pipeline-test-wheel"));
+        } finally {
+            ThreadPoolUtils.shutdown("async-pipeline-test-wheel");
+        }
+    }
+
+    private static void await(CountDownLatch latch){
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package cn.soilove.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 布隆过滤器工具：命名空间类型互斥、并发过滤器整批检测容量
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class BloomFilterUtilsTest {
+
+    @Test
+    public void batchOverCapacityAddsNothing(){
+        String namespace = "bloom-utils-test-batch";
+        BloomFilterUtils.createConcurrent(namespace, 3);
+        BloomFilterUtils.put(namespace, Arrays.asList("a", "b"));
+        try {
+            BloomFilterUtils.put(namespace, Arrays.asList("c", "d"));
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("容量不足"));
+        }
+        assertFalse(BloomFilterUtils.mightContain(namespace, "c"));
+        BloomFilterUtils.put(namespace, Arrays.asList("c"));
+        assertTrue(BloomFilterUtils.mightContain(namespace, "c"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void namespaceCannotBeReusedForAnotherType(){
+        String namespace = "bloom-utils-test-type";
+        BloomFilterUtils.createScalable(namespace, 100);
+        BloomFilterUtils.create(namespace, 100);
+    }
+
+    @Test
+    public void sameTypeReturnsSameFilter(){
+        String namespace = "bloom-utils-test-same";
+        assertEquals(BloomFilterUtils.createConcurrent(namespace, 100), BloomFilterUtils.createConcurrent(namespace, 100));
+    }
+}
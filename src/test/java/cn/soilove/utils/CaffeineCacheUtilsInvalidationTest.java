@@ -0,0 +1,126 @@
+package cn.soilove.utils;
+
+import cn.soilove.utils.cache.CacheInvalidationBus;
+import cn.soilove.utils.cache.LocalCacheInvalidationBus;
+import com.google.common.io.ByteStreams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 缓存失效广播：用两个类加载器各加载一份CaffeineCacheUtils模拟两个实例，共享同一条进程内总线
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class CaffeineCacheUtilsInvalidationTest {
+
+    private static final String CACHE_UTILS = "cn.soilove.utils.CaffeineCacheUtils";
+    private static final String NAMESPACE = "invalidation-test";
+
+    private final CacheInvalidationBus bus = new LocalCacheInvalidationBus();
+    private Class<?> nodeA;
+    private Class<?> nodeB;
+
+    @Before
+    public void setUp() throws Exception {
+        nodeA = CaffeineCacheUtils.class;
+        nodeB = new IsolatedClassLoader(getClass().getClassLoader()).loadClass(CACHE_UTILS);
+        setInvalidationBus(nodeA, bus);
+        setInvalidationBus(nodeB, bus);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for(Class<?> node : new Class<?>[]{nodeA, nodeB}){
+            setInvalidationBus(node, null);
+            node.getMethod("del", String.class).invoke(null, NAMESPACE);
+        }
+    }
+
+    @Test
+    public void delOnOneInstanceEvictsOtherInstance() throws Exception {
+        set(nodeA, "1001", "a");
+        set(nodeB, "1001", "b");
+        assertEquals("b", get(nodeB, "1001"));
+
+        nodeA.getMethod("del", String.class, String.class).invoke(null, NAMESPACE, "1001");
+
+        assertNull(awaitEvicted(nodeB, "1001"));
+        assertNull(get(nodeA, "1001"));
+    }
+
+    @Test
+    public void ownInvalidationsAreIgnored() throws Exception {
+        set(nodeA, "1002", "a");
+        // 等待本实例的失效消息发布并回传
+        Thread.sleep(200);
+        assertEquals("a", get(nodeA, "1002"));
+    }
+
+    private static Object awaitEvicted(Class<?> node, String key) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Object value = get(node, key);
+        while (value != null && System.nanoTime() < deadline){
+            Thread.sleep(10);
+            value = get(node, key);
+        }
+        return value;
+    }
+
+    private static void setInvalidationBus(Class<?> node, CacheInvalidationBus bus) throws Exception {
+        Method method = node.getMethod("setInvalidationBus", CacheInvalidationBus.class, int.class, long.class);
+        method.invoke(null, bus, 100, 10L);
+    }
+
+    private static void set(Class<?> node, String key, Object value) throws Exception {
+        node.getMethod("set", String.class, String.class, long.class, Object.class).invoke(null, NAMESPACE, key, 600L, value);
+    }
+
+    private static Object get(Class<?> node, String key) throws Exception {
+        return node.getMethod("get", String.class, String.class).invoke(null, NAMESPACE, key);
+    }
+
+    /**
+     * 只重新加载CaffeineCacheUtils及其内部类，其余类（总线、消息、线程池）与父加载器共享
+     */
+    private static final class IsolatedClassLoader extends ClassLoader {
+
+        private IsolatedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if(!name.equals(CACHE_UTILS) && !name.startsWith(CACHE_UTILS + "$")){
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)){
+                Class<?> clazz = findLoadedClass(name);
+                if(clazz == null){
+                    try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        if(in == null){
+                            throw new ClassNotFoundException(name);
+                        }
+                        byte[] bytes = ByteStreams.toByteArray(in);
+                        clazz = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                if(resolve){
+                    resolveClass(clazz);
+                }
+                return clazz;
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package cn.soilove.utils;
+
+import cn.soilove.utils.cache.CacheL2Store;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 缓存加载防击穿：同一key并发未命中时只加载一次，开启二级缓存时只读取一次二级缓存
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class CaffeineCacheUtilsLoadTest {
+
+    private static final String NAMESPACE = "load-test";
+    private static final int THREADS = 64;
+
+    @After
+    public void tearDown(){
+        CaffeineCacheUtils.setL2Store(null);
+        CaffeineCacheUtils.del(NAMESPACE);
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentMissCallsSupplierOncePerExpiry() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<Object> values = race(() -> CaffeineCacheUtils.get(NAMESPACE, "hot", 60, () -> {
+            calls.incrementAndGet();
+            sleep(50);
+            return "v" + calls.get();
+        }));
+        assertEquals(1, calls.get());
+        for(Object value : values){
+            assertEquals("v1", value);
+        }
+
+        // 失效后再次并发未命中，仍只加载一次
+        CaffeineCacheUtils.del(NAMESPACE, "hot");
+        race(() -> CaffeineCacheUtils.get(NAMESPACE, "hot", 60, () -> {
+            calls.incrementAndGet();
+            sleep(50);
+            return "v" + calls.get();
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentMissReadsL2Once() throws Exception {
+        CountingL2Store store = new CountingL2Store();
+        store.data.put("warm", "from-l2");
+        CaffeineCacheUtils.setL2Store(store);
+
+        AtomicInteger calls = new AtomicInteger();
+        List<Object> values = race(() -> CaffeineCacheUtils.get(NAMESPACE, "warm", 60, () -> {
+            calls.incrementAndGet();
+            return "from-db";
+        }));
+        assertEquals(1, store.gets.get());
+        assertEquals(0, calls.get());
+        for(Object value : values){
+            assertEquals("from-l2", value);
+        }
+
+        List<Object> cold = race(() -> CaffeineCacheUtils.get(NAMESPACE, "cold", 60, () -> {
+            calls.incrementAndGet();
+            sleep(50);
+            return "from-db";
+        }));
+        assertEquals(2, store.gets.get());
+        assertEquals(1, calls.get());
+        assertEquals("from-db", cold.get(0));
+        assertEquals("from-db", store.data.get("cold"));
+    }
+
+    @Test(timeout = 30000)
+    public void loaderFailureReachesEveryWaiter() throws Exception {
+        CaffeineCacheUtils.setL2Store(new CountingL2Store());
+        AtomicInteger failures = new AtomicInteger();
+        race(() -> {
+            try {
+                return CaffeineCacheUtils.get(NAMESPACE, "broken", 60, () -> {
+                    sleep(50);
+                    throw new IllegalStateException("db down");
+                });
+            } catch (IllegalStateException e) {
+                failures.incrementAndGet();
+                return null;
+            }
+        });
+        assertEquals(THREADS, failures.get());
+        assertNull(CaffeineCacheUtils.get(NAMESPACE, "broken", 60, () -> null));
+    }
+
+    /**
+     * THREADS个线程在同一时刻执行task
+     */
+    private static List<Object> race(java.util.function.Supplier<Object> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Object> values = new ArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for(int i = 0; i < THREADS; i++){
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    Object value = task.get();
+                    synchronized (values){
+                        values.add(value);
+                    }
+                } catch (Throwable t) {
+                    error.set(t);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for(Thread thread : threads){
+            thread.join();
+        }
+        if(error.get() != null){
+            throw new AssertionError(error.get());
+        }
+        assertEquals(THREADS, values.size());
+        return values;
+    }
+
+    private static void sleep(long millis){
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CountingL2Store implements CacheL2Store {
+        private final Map<String, Object> data = new ConcurrentHashMap<>();
+        private final AtomicInteger gets = new AtomicInteger();
+
+        @Override
+        public Object get(String namespace, String key) {
+            gets.incrementAndGet();
+            sleep(50);
+            return data.get(key);
+        }
+
+        @Override
+        public void put(String namespace, String key, Object value, long ttlMillis) {
+            data.put(key, value);
+        }
+
+        @Override
+        public void remove(String namespace, String key) {
+            data.remove(key);
+        }
+
+        @Override
+        public void clear(String namespace) {
+            data.clear();
+        }
+    }
+}
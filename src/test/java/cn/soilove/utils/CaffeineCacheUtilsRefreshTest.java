@@ -0,0 +1,74 @@
+package cn.soilove.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 按条目过期命名空间的提前异步刷新：按条目指定过期时间写入的key按原过期时间判断刷新、刷新后沿用原过期时间
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class CaffeineCacheUtilsRefreshTest {
+
+    private static final String NAMESPACE = "refresh-ttl-test";
+
+    @Before
+    public void setUp(){
+        CaffeineCacheUtils.create(NAMESPACE, CaffeineCacheUtils.CacheSpec.of(600).withVariableExpiry());
+        // 同步执行刷新，便于断言
+        CaffeineCacheUtils.setRefreshExecutor(Runnable::run);
+    }
+
+    @After
+    public void tearDown(){
+        CaffeineCacheUtils.setRefreshExecutor(ForkJoinPool.commonPool());
+        CaffeineCacheUtils.del(NAMESPACE);
+    }
+
+    @Test
+    public void shortExplicitTtlIsNotRefreshedOnEveryRead(){
+        AtomicInteger calls = new AtomicInteger();
+        CaffeineCacheUtils.set(NAMESPACE, "short", "v0", 30, TimeUnit.SECONDS);
+
+        for(int i = 0; i < 10; i++){
+            assertEquals("v0", CaffeineCacheUtils.get(NAMESPACE, "short", 600, 300, () -> "v" + calls.incrementAndGet()));
+        }
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void refreshKeepsExplicitTtl() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CaffeineCacheUtils.set(NAMESPACE, "ttl", "v0", 2, TimeUnit.SECONDS);
+
+        // 写入超过1秒后读取触发刷新
+        Thread.sleep(1200);
+        assertEquals("v0", CaffeineCacheUtils.get(NAMESPACE, "ttl", 600, 1, () -> "v" + calls.incrementAndGet()));
+        assertEquals(1, calls.get());
+        assertEquals("v1", CaffeineCacheUtils.get(NAMESPACE, "ttl"));
+
+        // 刷新后按原过期时间（2秒）过期，而不是命名空间默认的600秒
+        Thread.sleep(2200);
+        assertNull(CaffeineCacheUtils.get(NAMESPACE, "ttl"));
+    }
+
+    @Test
+    public void defaultTtlOverwriteDropsExplicitTtl(){
+        AtomicInteger calls = new AtomicInteger();
+        CaffeineCacheUtils.set(NAMESPACE, "overwrite", "v0", 30, TimeUnit.SECONDS);
+        // 按默认过期时间覆盖后，按命名空间过期时间判断刷新
+        CaffeineCacheUtils.set(NAMESPACE, "overwrite", 600, "v0");
+
+        assertEquals("v0", CaffeineCacheUtils.get(NAMESPACE, "overwrite", 600, 300, () -> "v" + calls.incrementAndGet()));
+        assertEquals(0, calls.get());
+    }
+}
@@ -0,0 +1,139 @@
+package cn.soilove.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * fork/join并行工具耗时对比：与顺序执行、parallelStream()对比，以及拆分阈值 = 数据量 / (并行度 * 每线程任务数) 中每线程任务数的取值
+ * <pre>
+ *     只断言结果一致、打印各方式的中位耗时，不断言耗时（与机器核数、负载相关）
+ * </pre>
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class ForkJoinUtilsBenchmarkTest {
+
+    private static final int SIZE = 200_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 7;
+
+    private static final List<Integer> SOURCE = new ArrayList<>(SIZE);
+
+    static {
+        for(int i = 0; i < SIZE; i++){
+            SOURCE.add(i);
+        }
+    }
+
+    @Test(timeout = 120000)
+    public void parallelMapAgainstSequentialAndParallelStream(){
+        List<Long> expected = SOURCE.stream().map(ForkJoinUtilsBenchmarkTest::work).collect(Collectors.toList());
+        assertEquals(expected, ForkJoinUtils.parallelMap(SOURCE, ForkJoinUtilsBenchmarkTest::work));
+
+        long sequential = median(() -> SOURCE.stream().map(ForkJoinUtilsBenchmarkTest::work).collect(Collectors.toList()));
+        long parallelStream = median(() -> SOURCE.parallelStream().map(ForkJoinUtilsBenchmarkTest::work).collect(Collectors.toList()));
+        long parallelMap = median(() -> ForkJoinUtils.parallelMap(SOURCE, ForkJoinUtilsBenchmarkTest::work));
+        print("parallelMap", sequential, parallelStream, parallelMap);
+        printThresholds("parallelMap", threshold -> ForkJoinUtils.parallelMap(SOURCE, ForkJoinUtilsBenchmarkTest::work, threshold));
+    }
+
+    @Test(timeout = 120000)
+    public void parallelReduceAgainstSequentialAndParallelStream(){
+        List<Long> values = ForkJoinUtils.parallelMap(SOURCE, ForkJoinUtilsBenchmarkTest::work);
+        long expected = values.stream().reduce(0L, ForkJoinUtilsBenchmarkTest::combine);
+        assertEquals(expected, (long) ForkJoinUtils.parallelReduce(values, 0L, ForkJoinUtilsBenchmarkTest::combine));
+
+        long sequential = median(() -> values.stream().reduce(0L, ForkJoinUtilsBenchmarkTest::combine));
+        long parallelStream = median(() -> values.parallelStream().reduce(0L, ForkJoinUtilsBenchmarkTest::combine));
+        long parallelReduce = median(() -> ForkJoinUtils.parallelReduce(values, 0L, ForkJoinUtilsBenchmarkTest::combine));
+        print("parallelReduce", sequential, parallelStream, parallelReduce);
+        printThresholds("parallelReduce", threshold -> ForkJoinUtils.parallelReduce(values, 0L, ForkJoinUtilsBenchmarkTest::combine, threshold));
+    }
+
+    @Test(timeout = 120000)
+    public void parallelForEachAgainstSequentialAndParallelStream(){
+        LongAdder sink = new LongAdder();
+        long sequential = median(() -> {
+            SOURCE.forEach(i -> sink.add(work(i)));
+            return sink;
+        });
+        long parallelStream = median(() -> {
+            SOURCE.parallelStream().forEach(i -> sink.add(work(i)));
+            return sink;
+        });
+        long parallelForEach = median(() -> {
+            ForkJoinUtils.parallelForEach(SOURCE, i -> sink.add(work(i)));
+            return sink;
+        });
+        print("parallelForEach", sequential, parallelStream, parallelForEach);
+        printThresholds("parallelForEach", threshold -> {
+            ForkJoinUtils.parallelForEach(SOURCE, i -> sink.add(work(i)), threshold);
+            return sink;
+        });
+    }
+
+    /**
+     * 每个元素约数百纳秒的计算，模拟轻量的业务转换
+     */
+    private static long work(int x){
+        long h = x;
+        for(int i = 0; i < 64; i++){
+            h = h * 6364136223846793005L + 1442695040888963407L;
+        }
+        return h;
+    }
+
+    /**
+     * 满足结合律、以0为单位元的运算
+     */
+    private static long combine(long a, long b){
+        return a ^ b;
+    }
+
+    private static void printThresholds(String name, ThresholdRun run){
+        int parallelism = ForkJoinUtils.sharedPool().getParallelism();
+        StringBuilder line = new StringBuilder(name + " 每线程任务数(阈值)耗时：");
+        for(int tasksPerThread : Arrays.asList(1, 4, 16, 64)){
+            int threshold = Math.max(1, SIZE / (parallelism * tasksPerThread));
+            line.append(tasksPerThread).append("(").append(threshold).append(")=")
+                    .append(median(() -> run.run(threshold))).append("us ");
+        }
+        System.out.println(line);
+    }
+
+    private static void print(String name, long sequential, long parallelStream, long forkJoin){
+        System.out.println(name + " size=" + SIZE + "，parallelism=" + ForkJoinUtils.sharedPool().getParallelism()
+                + "：sequential=" + sequential + "us，parallelStream=" + parallelStream + "us，ForkJoinUtils=" + forkJoin + "us");
+    }
+
+    /**
+     * 预热后多轮执行的中位耗时
+     * @return 单位：微秒
+     */
+    private static long median(Supplier<?> task){
+        for(int i = 0; i < WARMUP_ROUNDS; i++){
+            task.get();
+        }
+        long[] costs = new long[ROUNDS];
+        for(int i = 0; i < ROUNDS; i++){
+            long start = System.nanoTime();
+            task.get();
+            costs[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(costs);
+        return costs[ROUNDS / 2];
+    }
+
+    private interface ThresholdRun {
+        Object run(int threshold);
+    }
+}
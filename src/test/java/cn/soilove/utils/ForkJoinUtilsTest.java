@@ -0,0 +1,59 @@
+package cn.soilove.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * fork/join并行工具：invokeAll的结果状态与默认线程池
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class ForkJoinUtilsTest {
+
+    @Test(timeout = 10000)
+    public void invokeAllReportsEachStatusInOrder(){
+        List<Callable<String>> tasks = Arrays.asList(
+                () -> "ok",
+                () -> {
+                    throw new IllegalStateException("boom");
+                },
+                () -> {
+                    TimeUnit.SECONDS.sleep(5);
+                    return "slow";
+                });
+        List<ForkJoinUtils.TaskResult<String>> results = ForkJoinUtils.invokeAll(tasks, 200, TimeUnit.MILLISECONDS);
+        assertEquals(3, results.size());
+        assertEquals(ForkJoinUtils.TaskStatus.SUCCESS, results.get(0).getStatus());
+        assertEquals("ok", results.get(0).getValue());
+        assertEquals(ForkJoinUtils.TaskStatus.FAILED, results.get(1).getStatus());
+        assertTrue(results.get(1).getError() instanceof IllegalStateException);
+        assertEquals(ForkJoinUtils.TaskStatus.TIMEOUT, results.get(2).getStatus());
+    }
+
+    @Test(timeout = 10000)
+    public void defaultInvokeAllDoesNotBlockSharedForkJoinPool(){
+        List<Callable<Boolean>> tasks = Arrays.asList(
+                () -> Thread.currentThread() instanceof ForkJoinWorkerThread,
+                () -> Thread.currentThread() instanceof ForkJoinWorkerThread);
+        for(ForkJoinUtils.TaskResult<Boolean> result : ForkJoinUtils.invokeAll(tasks, 5, TimeUnit.SECONDS)){
+            assertTrue(result.isSuccess());
+            assertFalse(result.getValue());
+        }
+    }
+
+    @Test
+    public void parallelMapKeepsOrder(){
+        List<Integer> source = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertEquals(Arrays.asList(2, 4, 6, 8, 10, 12, 14, 16, 18, 20), ForkJoinUtils.parallelMap(source, i -> i * 2));
+    }
+}
@@ -0,0 +1,124 @@
+package cn.soilove.utils;
+
+import cn.soilove.utils.concurrent.BatchingExecutor;
+import cn.soilove.utils.concurrent.HashedWheelTimer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 线程池工具：按bizName复用、运行时调整参数
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class ThreadPoolUtilsTest {
+
+    private static final String PREFIX = "thread-pool-utils-test-";
+
+    @After
+    public void tearDown(){
+        ThreadPoolUtils.shutdown(PREFIX + "fixed");
+        ThreadPoolUtils.shutdown(PREFIX + "batching");
+        ThreadPoolUtils.shutdown(PREFIX + "wheel");
+        ThreadPoolUtils.shutdown(PREFIX + "adaptive");
+        ThreadPoolUtils.shutdown(PREFIX + "single");
+    }
+
+    @Test
+    public void sameBizNameReturnsSamePool(){
+        ExecutorService first = ThreadPoolUtils.newFixedThreadPool(PREFIX + "fixed", 2);
+        assertSame(first, ThreadPoolUtils.newFixedThreadPool(PREFIX + "fixed", 2));
+        ThreadPoolUtils.shutdown(PREFIX + "fixed");
+        ExecutorService second = ThreadPoolUtils.newFixedThreadPool(PREFIX + "fixed", 2);
+        assertNotSame(first, second);
+        assertFalse(second.isShutdown());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void sameBizNameWithDifferentParamsConflicts(){
+        ThreadPoolUtils.newFixedThreadPool(PREFIX + "fixed", 2);
+        ThreadPoolUtils.newFixedThreadPool(PREFIX + "fixed", 3);
+    }
+
+    @Test
+    public void sharedForkJoinPoolIsRecreatedAfterShutdown(){
+        ForkJoinPool first = ForkJoinUtils.sharedPool();
+        assertSame(first, ForkJoinUtils.sharedPool());
+        ThreadPoolUtils.shutdown(ForkJoinUtils.SHARED_BIZ_NAME);
+        ForkJoinPool second = ForkJoinUtils.sharedPool();
+        assertNotSame(first, second);
+        assertFalse(second.isShutdown());
+    }
+
+    @Test
+    public void reconfigureResizesPool(){
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ThreadPoolUtils.newThreadPoolExecutor(PREFIX + "fixed",
+                2, 2, 60, TimeUnit.SECONDS, 16, "fixed-%s");
+        ThreadPoolUtils.reconfigure(PREFIX + "fixed", ThreadPoolUtils.PoolSpec.of(4, 8));
+        assertEquals(4, executor.getCorePoolSize());
+        assertEquals(8, executor.getMaximumPoolSize());
+    }
+
+    @Test
+    public void reconfigureRejectsSingleThreadAndUnboundedPools(){
+        ThreadPoolUtils.newSingleThreadExecutor(PREFIX + "single");
+        ThreadPoolUtils.newFixedThreadPool(PREFIX + "fixed", 2);
+        for(String bizName : new String[]{PREFIX + "single", PREFIX + "fixed"}){
+            try {
+                ThreadPoolUtils.reconfigure(bizName, ThreadPoolUtils.PoolSpec.of(4, 4));
+                fail(bizName);
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().contains("不支持调整参数"));
+            }
+        }
+        ThreadPoolExecutor single = (ThreadPoolExecutor) ThreadPoolUtils.getExecutor(PREFIX + "single");
+        assertEquals(1, single.getMaximumPoolSize());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void reconfigureRejectsBatchingExecutorThread(){
+        BatchingExecutor<String> executor = ThreadPoolUtils.newBatchingExecutor(PREFIX + "batching", 16, 4,
+                10, TimeUnit.MILLISECONDS, batch -> {});
+        ThreadPoolUtils.reconfigure(PREFIX + "batching", ThreadPoolUtils.PoolSpec.of(4, 4));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void reconfigureRejectsWheelTimerThread(){
+        HashedWheelTimer timer = ThreadPoolUtils.newHashedWheelTimer(PREFIX + "wheel", 10, TimeUnit.MILLISECONDS, 64, 0);
+        ThreadPoolUtils.reconfigure(PREFIX + "wheel", ThreadPoolUtils.PoolSpec.of(4, 4));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void reconfigureRejectsAdaptivePool(){
+        ThreadPoolUtils.newAdaptiveThreadPoolExecutor(PREFIX + "adaptive", 2, 8, 100, TimeUnit.MILLISECONDS,
+                "adaptive-%s", () -> {});
+        ThreadPoolUtils.reconfigure(PREFIX + "adaptive", ThreadPoolUtils.PoolSpec.of(4, 4));
+    }
+
+    @Test
+    public void virtualThreadFactoryIsProbedBeforeUse() throws Exception {
+        // JDK19/20未开启预览特性时，newVirtualThreadPerTaskExecutor抛出UnsupportedOperationException
+        assertNull(ThreadPoolUtils.probeVirtualThreadExecutorFactory(ThreadPoolUtilsTest.class.getDeclaredMethod("previewOnlyFactory")));
+        Method cached = Executors.class.getMethod("newCachedThreadPool");
+        assertSame(cached, ThreadPoolUtils.probeVirtualThreadExecutorFactory(cached));
+    }
+
+    static ExecutorService previewOnlyFactory(){
+        throw new UnsupportedOperationException("Preview Features not enabled, need to run with --enable-preview");
+    }
+}
@@ -0,0 +1,103 @@
+package cn.soilove.utils.bloom;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 分块布隆过滤器：无漏判、实测假阳性率、并发插入
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class BlockedBloomFilterTest {
+
+    private static final int INSERTIONS = 200000;
+    private static final int PROBES = 1000000;
+
+    @Test
+    public void measuredFppStaysNearTarget(){
+        for(double fpp : new double[]{0.01, 0.001, 0.0001}){
+            BlockedBloomFilter filter = new BlockedBloomFilter(INSERTIONS, fpp);
+            for(int i = 0; i < INSERTIONS; i++){
+                filter.put("item-" + i);
+            }
+            for(int i = 0; i < INSERTIONS; i++){
+                assertTrue(filter.mightContain("item-" + i));
+            }
+            int falsePositives = 0;
+            for(int i = 0; i < PROBES; i++){
+                if(filter.mightContain("absent-" + i)){
+                    falsePositives++;
+                }
+            }
+            double measured = (double) falsePositives / PROBES;
+            // 允许统计波动，不允许系统性偏高
+            assertTrue("fpp=" + fpp + "，measured=" + measured, measured <= fpp * 1.5 + 3.0 / PROBES);
+        }
+    }
+
+    @Test
+    public void countIgnoresDuplicates(){
+        BlockedBloomFilter filter = new BlockedBloomFilter(1000, 0.001);
+        assertTrue(filter.put("a"));
+        assertFalse(filter.put("a"));
+        assertEquals(2, filter.putAll(Arrays.asList("b", "c", "b")));
+        assertEquals(3, filter.approximateElementCount());
+    }
+
+    @Test
+    public void hashOverloadsMatchItemOverloads(){
+        BlockedBloomFilter filter = new BlockedBloomFilter(1000, 0.001);
+        filter.putHash(BlockedBloomFilter.hash("a"));
+        assertTrue(filter.mightContain("a"));
+        filter.put("b");
+        assertTrue(filter.mightContainHash(BlockedBloomFilter.hash("b")));
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentInsertsAreNotLost() throws Exception {
+        int threads = 4;
+        int perThread = 50000;
+        BlockedBloomFilter filter = new BlockedBloomFilter(threads * perThread, 0.001);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for(int t = 0; t < threads; t++){
+            int offset = t * perThread;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for(int i = 0; i < perThread; i++){
+                    filter.put("item-" + (offset + i));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for(Thread worker : workers){
+            worker.join();
+        }
+        for(int i = 0; i < threads * perThread; i++){
+            assertTrue(filter.mightContain("item-" + i));
+        }
+        // 重复或假阳性导致位数组未变化的元素不计数，数量只会略少
+        long count = filter.approximateElementCount();
+        assertTrue("count=" + count, count <= threads * perThread && count >= threads * perThread * 0.99);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidFpp(){
+        new BlockedBloomFilter(1000, 1);
+    }
+}
@@ -0,0 +1,65 @@
+package cn.soilove.utils.bloom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 可扩容布隆过滤器：写满自动扩容、扩容后无漏判、整体实测假阳性率
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class ScalableBloomFilterTest {
+
+    private static final int PROBES = 1000000;
+
+    @Test
+    public void growsInsteadOfFailing(){
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.001);
+        assertEquals(1, filter.getLayerCount());
+        for(int i = 0; i < 10000; i++){
+            filter.put("item-" + i);
+        }
+        assertTrue(filter.getLayerCount() > 1);
+        for(int i = 0; i < 10000; i++){
+            assertTrue(filter.mightContain("item-" + i));
+        }
+    }
+
+    @Test
+    public void measuredFppAcrossLayersStaysNearTarget(){
+        double fpp = 0.001;
+        // 初始容量远小于插入量，迫使扩容多层
+        ScalableBloomFilter filter = new ScalableBloomFilter(10000, fpp);
+        int insertions = 300000;
+        for(int i = 0; i < insertions; i++){
+            filter.put("item-" + i);
+        }
+        assertTrue(filter.getLayerCount() >= 4);
+        int falsePositives = 0;
+        for(int i = 0; i < PROBES; i++){
+            if(filter.mightContain("absent-" + i)){
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / PROBES;
+        assertTrue("measured=" + measured, measured <= fpp * 1.5);
+        assertTrue("expected=" + filter.expectedFpp(), filter.expectedFpp() <= fpp);
+    }
+
+    @Test
+    public void duplicatePutReturnsFalse(){
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        assertTrue(filter.put("a"));
+        assertFalse(filter.put("a"));
+        assertEquals(1, filter.approximateElementCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidGrowthFactor(){
+        new ScalableBloomFilter(100, 0.01, 0.5, 0);
+    }
+}
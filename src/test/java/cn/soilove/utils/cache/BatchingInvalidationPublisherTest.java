@@ -0,0 +1,67 @@
+package cn.soilove.utils.cache;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 缓存失效消息合并发布：调度线程池关闭、发布方关闭后消息不丢失、不影响调用方
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class BatchingInvalidationPublisherTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<CacheInvalidation> published = new CopyOnWriteArrayList<>();
+    private final CacheInvalidationBus bus = new CacheInvalidationBus() {
+        @Override
+        public void publish(List<CacheInvalidation> invalidations) {
+            published.addAll(invalidations);
+        }
+
+        @Override
+        public void subscribe(Consumer<List<CacheInvalidation>> listener) {
+        }
+
+        @Override
+        public void unsubscribe(Consumer<List<CacheInvalidation>> listener) {
+        }
+    };
+
+    @After
+    public void tearDown(){
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void schedulerShutdownFallsBackToInlineFlush(){
+        BatchingInvalidationPublisher publisher = new BatchingInvalidationPublisher(bus, "a", 2, 60000, scheduler);
+        scheduler.shutdownNow();
+        publisher.publish("ns", "k1");
+        publisher.publish("ns", "k2");
+        assertEquals(2, published.size());
+        // 调度失败后仍能按批次大小继续触发发布
+        publisher.publish("ns", "k3");
+        publisher.publish("ns", "k4");
+        assertEquals(4, published.size());
+    }
+
+    @Test
+    public void publishAfterCloseIsNotStranded(){
+        BatchingInvalidationPublisher publisher = new BatchingInvalidationPublisher(bus, "a", 100, 60000, scheduler);
+        publisher.publish("ns", "k1");
+        publisher.close();
+        assertEquals(1, published.size());
+        publisher.publish("ns", "k2");
+        assertEquals(2, published.size());
+        assertEquals("k2", published.get(1).getKey());
+    }
+}
@@ -0,0 +1,84 @@
+package cn.soilove.utils.concurrent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 自适应并发线程池：未执行即被丢弃的任务归还并发名额
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class AdaptiveThreadPoolExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AimdLimiter limiter;
+    private AdaptiveThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        limiter = new AimdLimiter(1, 4, TimeUnit.SECONDS.toNanos(10));
+        // 1个线程执行阻塞任务，其余任务排队
+        executor = new AdaptiveThreadPoolExecutor(limiter, 0, TimeUnit.SECONDS, Thread::new,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.setCorePoolSize(1);
+        executor.setMaximumPoolSize(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+    }
+
+    @After
+    public void tearDown(){
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void removeReturnsPermit(){
+        Runnable task = () -> {};
+        executor.execute(task);
+        assertEquals(2, limiter.getInFlight());
+        assertTrue(executor.remove(task));
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void shutdownNowReturnsPermits() throws Exception {
+        executor.execute(() -> {});
+        executor.execute(() -> {});
+        assertEquals(3, limiter.getInFlight());
+        List<Runnable> drained = executor.shutdownNow();
+        assertEquals(2, drained.size());
+        // 执行中的任务被中断后归还1个，取出的2个任务各归还1个
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void completedTaskReturnsPermit() throws Exception {
+        release.countDown();
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getInFlight());
+    }
+}
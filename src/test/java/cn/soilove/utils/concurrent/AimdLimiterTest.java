@@ -0,0 +1,95 @@
+package cn.soilove.utils.concurrent;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * AIMD并发限制器：名额占用、加性增、每个窗口最多一次乘性减
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class AimdLimiterTest {
+
+    private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void tryAcquireStopsAtLimit(){
+        AimdLimiter limiter = new AimdLimiter(1, 3, TARGET_NANOS);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(3, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void slowSamplesOfOneWindowBackOffOnce(){
+        AimdLimiter limiter = new AimdLimiter(1, 20, TARGET_NANOS);
+        for(int i = 0; i < 20; i++){
+            assertTrue(limiter.tryAcquire());
+        }
+        // 同一批任务在缩小前开始，全部超时也只缩小一次
+        for(int i = 0; i < 10; i++){
+            limiter.onSample(2 * TARGET_NANOS);
+        }
+        assertEquals(18, limiter.getLimit());
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    public void slowSampleStartedAfterBackoffBacksOffAgain() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(1, 20, TARGET_NANOS);
+        assertTrue(limiter.tryAcquire());
+        limiter.onSample(2 * TARGET_NANOS);
+        assertEquals(18, limiter.getLimit());
+
+        TimeUnit.MILLISECONDS.sleep(5);
+        assertTrue(limiter.tryAcquire());
+        limiter.onSample(2 * TARGET_NANOS);
+        assertEquals(16, limiter.getLimit());
+    }
+
+    @Test
+    public void backoffStopsAtMinLimit() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(5, 6, TARGET_NANOS, 0.5);
+        for(int i = 0; i < 3; i++){
+            assertTrue(limiter.tryAcquire());
+            limiter.onSample(2 * TARGET_NANOS);
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void fastSamplesIncreaseOnlyWhenHalfUsed(){
+        AimdLimiter limiter = new AimdLimiter(1, 20, TARGET_NANOS, 0.5);
+        assertTrue(limiter.tryAcquire());
+        limiter.onSample(2 * TARGET_NANOS);
+        assertEquals(10, limiter.getLimit());
+
+        // 并发未过半不扩大
+        assertTrue(limiter.tryAcquire());
+        limiter.onSample(0);
+        assertEquals(10, limiter.getLimit());
+
+        for(int i = 0; i < 6; i++){
+            assertTrue(limiter.tryAcquire());
+        }
+        limiter.onSample(0);
+        assertEquals(11, limiter.getLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidLimits(){
+        new AimdLimiter(5, 4, TARGET_NANOS);
+    }
+}
@@ -0,0 +1,140 @@
+package cn.soilove.utils.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 批量执行器：按数量、等待时间凑批，关闭时已接收的数据全部处理
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class BatchingExecutorTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown(){
+        executor.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void fullBatchIsFlushedImmediately() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(1);
+        BatchingExecutor<Integer> batching = new BatchingExecutor<>("test", 64, 4, 1, TimeUnit.HOURS, batch -> {
+            sizes.add(batch.size());
+            flushed.countDown();
+        }, executor);
+        for(int i = 0; i < 4; i++){
+            assertTrue(batching.offer(i));
+        }
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(4, (int) sizes.get(0));
+        batching.close();
+    }
+
+    @Test(timeout = 10000)
+    public void partialBatchIsFlushedAfterLinger() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(1);
+        BatchingExecutor<Integer> batching = new BatchingExecutor<>("test", 64, 100, 20, TimeUnit.MILLISECONDS, batch -> {
+            sizes.add(batch.size());
+            flushed.countDown();
+        }, executor);
+        assertTrue(batching.offer(1));
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, (int) sizes.get(0));
+        batching.close();
+    }
+
+    @Test
+    public void offerAfterCloseIsRejected(){
+        BatchingExecutor<Integer> batching = new BatchingExecutor<>("test", 64, 4, 1, TimeUnit.MILLISECONDS,
+                batch -> {}, executor);
+        batching.close();
+        assertFalse(batching.offer(1));
+        assertEquals(1, batching.getRejectedCount());
+    }
+
+    @Test(timeout = 10000)
+    public void errorInHandlerDoesNotKillConsumer() throws Exception {
+        AtomicLong processed = new AtomicLong();
+        CountDownLatch second = new CountDownLatch(1);
+        BatchingExecutor<Integer> batching = new BatchingExecutor<>("test", 64, 1, 1, TimeUnit.MILLISECONDS, batch -> {
+            if(batch.get(0) == 0){
+                throw new StackOverflowError("boom");
+            }
+            processed.addAndGet(batch.size());
+            second.countDown();
+        }, executor);
+        assertTrue(batching.offer(0));
+        assertTrue(batching.offer(1));
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        assertFalse(batching.isClosed());
+        assertEquals(1, processed.get());
+        batching.close();
+    }
+
+    @Test(timeout = 10000)
+    public void producersFailFastWhenConsumerIsGone() throws Exception {
+        BatchingExecutor<Integer> batching = new BatchingExecutor<>("test", 2, 1, 1, TimeUnit.HOURS,
+                batch -> {}, executor);
+        // 消费线程被强制中断退出后，put不能一直阻塞
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(batching.isClosed());
+        try {
+            batching.put(1);
+            fail();
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, batching.getRejectedCount());
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void itemsAcceptedWhileClosingAreProcessed() throws Exception {
+        for(int round = 0; round < 50; round++){
+            AtomicLong processed = new AtomicLong();
+            ExecutorService consumer = Executors.newSingleThreadExecutor();
+            BatchingExecutor<Integer> batching = new BatchingExecutor<>("test", 1024, 16, 1, TimeUnit.MILLISECONDS,
+                    batch -> processed.addAndGet(batch.size()), consumer);
+            AtomicLong accepted = new AtomicLong();
+            List<Thread> producers = new ArrayList<>();
+            for(int p = 0; p < 4; p++){
+                Thread thread = new Thread(() -> {
+                    for(int i = 0; i < 10000; i++){
+                        if(batching.offer(i)){
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+                thread.start();
+                producers.add(thread);
+            }
+            Thread.sleep(1);
+            batching.close();
+            for(Thread thread : producers){
+                thread.join();
+            }
+            consumer.shutdown();
+            assertTrue(consumer.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(accepted.get(), processed.get());
+            assertEquals(accepted.get(), batching.getSubmittedCount());
+        }
+    }
+}
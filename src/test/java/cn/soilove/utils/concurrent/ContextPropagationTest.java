@@ -0,0 +1,142 @@
+package cn.soilove.utils.concurrent;
+
+import cn.soilove.utils.ThreadPoolUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 线程上下文传递：ThreadPoolUtils创建的线程池在任务中可见提交线程的MDC，执行后工作线程的MDC被还原
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class ContextPropagationTest {
+
+    private static final String PREFIX = "context-propagation-test-";
+    private static final String KEY = "traceId";
+    private static final int BENCHMARK_TASKS = 1_000_000;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = ThreadPoolUtils.newThreadPoolExecutor(PREFIX + "executor", 1, 1, 60, TimeUnit.SECONDS, 16, "context-executor-%s");
+        scheduler = ThreadPoolUtils.newScheduledThreadPool(PREFIX + "scheduler", 1);
+        // 工作线程在设置MDC前创建，避免MDC实现继承父线程上下文影响断言
+        executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+        scheduler.submit(() -> {}).get(5, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown(){
+        ThreadPoolUtils.disableContextPropagation();
+        MDC.clear();
+        ThreadPoolUtils.shutdown(PREFIX + "executor");
+        ThreadPoolUtils.shutdown(PREFIX + "scheduler");
+    }
+
+    @Test(timeout = 10000)
+    public void threadPoolExecutorPropagatesAndClearsMdc() throws Exception {
+        ThreadPoolUtils.enableContextPropagation();
+        MDC.put(KEY, "t-executor");
+        assertEquals("t-executor", executor.submit(() -> MDC.get(KEY)).get(5, TimeUnit.SECONDS));
+        assertEquals("t-executor", mdcOfExecute(executor));
+
+        // 提交线程没有上下文时，工作线程不残留上一个任务的MDC
+        MDC.clear();
+        assertNull(executor.submit(() -> MDC.get(KEY)).get(5, TimeUnit.SECONDS));
+        assertNull(mdcOfExecute(executor));
+    }
+
+    @Test(timeout = 10000)
+    public void scheduledThreadPoolPropagatesAndClearsMdc() throws Exception {
+        ThreadPoolUtils.enableContextPropagation();
+        MDC.put(KEY, "t-scheduler");
+        assertEquals("t-scheduler", scheduler.schedule(() -> MDC.get(KEY), 10, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS));
+        assertEquals("t-scheduler", scheduler.submit(() -> MDC.get(KEY)).get(5, TimeUnit.SECONDS));
+        assertEquals("t-scheduler", mdcOfExecute(scheduler));
+
+        MDC.clear();
+        assertNull(scheduler.schedule(() -> MDC.get(KEY), 10, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 10000)
+    public void disabledPropagationLeavesWorkerMdcEmpty() throws Exception {
+        MDC.put(KEY, "t-disabled");
+        assertNull(executor.submit(() -> MDC.get(KEY)).get(5, TimeUnit.SECONDS));
+        assertNull(scheduler.submit(() -> MDC.get(KEY)).get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 每个任务的包装开销：与InstrumentedThreadPoolExecutor一致，提交时创建TimedRunnable，执行前后恢复、还原上下文
+     */
+    @Test(timeout = 60000)
+    public void perTaskOverhead(){
+        Runnable task = () -> {};
+        MDC.put(KEY, "t-benchmark");
+        MDC.put("userId", "10001");
+        MDC.put("requestUri", "/order/detail");
+
+        long disabled = nanosPerTask(task);
+        ThreadPoolUtils.enableContextPropagation();
+        long enabled = nanosPerTask(task);
+        MDC.clear();
+        long enabledWithoutMdc = nanosPerTask(task);
+        System.out.println("context propagation per task: disabled=" + disabled + "ns，enabled(3 MDC keys)=" + enabled
+                + "ns，enabled(empty MDC)=" + enabledWithoutMdc + "ns");
+    }
+
+    /**
+     * 通过execute(Runnable)提交，返回任务中读取到的MDC
+     */
+    private static String mdcOfExecute(Executor target) throws InterruptedException {
+        AtomicReference<String> value = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        target.execute(() -> {
+            value.set(MDC.get(KEY));
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return value.get();
+    }
+
+    /**
+     * 预热后的中位耗时
+     * @return 单位：纳秒/任务
+     */
+    private static long nanosPerTask(Runnable task){
+        long[] costs = new long[5];
+        for(int round = -2; round < costs.length; round++){
+            long start = System.nanoTime();
+            for(int i = 0; i < BENCHMARK_TASKS; i++){
+                TimedRunnable timedRunnable = new TimedRunnable(task);
+                timedRunnable.restoreContext();
+                try {
+                    timedRunnable.run();
+                } finally {
+                    timedRunnable.resetContext();
+                }
+            }
+            if(round >= 0){
+                costs[round] = (System.nanoTime() - start) / BENCHMARK_TASKS;
+            }
+        }
+        Arrays.sort(costs);
+        return costs[costs.length / 2];
+    }
+}
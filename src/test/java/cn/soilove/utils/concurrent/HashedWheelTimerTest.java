@@ -0,0 +1,114 @@
+package cn.soilove.utils.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 时间轮定时器：到期执行、取消、多圈任务、任务抛出Error、延迟溢出
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class HashedWheelTimerTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private HashedWheelTimer timer;
+
+    @After
+    public void tearDown(){
+        if(timer != null){
+            timer.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void timeoutExpiresAfterDelay() throws Exception {
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 64, 0, executor);
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(fired::countDown, 50, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test(timeout = 10000)
+    public void cancelledTimeoutNeverRuns() throws Exception {
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 64, 0, executor);
+        AtomicBoolean ran = new AtomicBoolean();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> ran.set(true), 30, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+
+        CountDownLatch later = new CountDownLatch(1);
+        timer.newTimeout(later::countDown, 100, TimeUnit.MILLISECONDS);
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+        assertEquals(1, timer.getCancelledCount());
+        assertEquals(0, timer.getPendingTimeouts());
+    }
+
+    @Test(timeout = 10000)
+    public void delayLongerThanOneRoundWaitsForRemainingRounds() throws Exception {
+        // 一圈4个槽位、每槽10毫秒，150毫秒需要转3圈以上
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 4, 0, executor);
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.newTimeout(fired::countDown, 150, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test(timeout = 10000)
+    public void errorInTaskDoesNotStopTimer() throws Exception {
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 64, 0, executor);
+        timer.newTimeout(() -> {
+            throw new AssertionError("boom");
+        }, 10, TimeUnit.MILLISECONDS);
+        CountDownLatch fired = new CountDownLatch(1);
+        timer.newTimeout(fired::countDown, 50, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertFalse(timer.isStopped());
+    }
+
+    @Test(timeout = 10000)
+    public void overflowingDelayNeverExpires() throws Exception {
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 64, 0, executor);
+        AtomicBoolean ran = new AtomicBoolean();
+        timer.newTimeout(() -> ran.set(true), Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        CountDownLatch later = new CountDownLatch(1);
+        timer.newTimeout(later::countDown, 50, TimeUnit.MILLISECONDS);
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+        assertEquals(1, timer.getPendingTimeouts());
+    }
+
+    @Test(timeout = 10000)
+    public void stoppedWhenWorkerIsInterrupted() throws Exception {
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 64, 0, executor);
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(timer.isStopped());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void rejectsWhenPendingLimitReached(){
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 64, 1, executor);
+        timer.newTimeout(() -> {}, 1, TimeUnit.HOURS);
+        timer.newTimeout(() -> {}, 1, TimeUnit.HOURS);
+    }
+}
@@ -0,0 +1,101 @@
+package cn.soilove.utils.concurrent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 带监控统计的线程池：包装任务不改变调用方看到的任务对象
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class InstrumentedThreadPoolExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicReference<Runnable> rejected = new AtomicReference<>();
+    private InstrumentedThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = new InstrumentedThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(2),
+                Thread::new, (r, e) -> rejected.set(r));
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        started.await();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void rejectedHandlerReceivesOriginalTask() {
+        executor.execute(() -> { });
+        executor.execute(() -> { });
+        Runnable task = () -> { };
+        executor.execute(task);
+
+        assertSame(task, rejected.get());
+        assertEquals(1, executor.getRejectedCount());
+    }
+
+    @Test
+    public void shutdownNowReturnsOriginalTasks() {
+        Runnable first = () -> { };
+        Runnable second = () -> { };
+        executor.execute(first);
+        executor.execute(second);
+
+        List<Runnable> drained = executor.shutdownNow();
+
+        assertEquals(2, drained.size());
+        assertSame(first, drained.get(0));
+        assertSame(second, drained.get(1));
+    }
+
+    @Test
+    public void removeFindsOriginalTask() {
+        Runnable task = () -> { };
+        executor.execute(task);
+
+        assertTrue(executor.remove(task));
+        assertFalse(executor.remove(task));
+        assertEquals(0, executor.getQueue().size());
+    }
+
+    @Test
+    public void purgeRemovesCancelledFutures() {
+        Future<?> future = executor.submit(() -> { });
+        future.cancel(false);
+
+        executor.purge();
+
+        assertEquals(0, executor.getQueue().size());
+    }
+
+    private static void await(CountDownLatch latch){
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
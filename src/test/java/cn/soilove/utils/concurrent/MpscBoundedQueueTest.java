@@ -0,0 +1,114 @@
+package cn.soilove.utils.concurrent;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 无锁有界多生产者单消费者队列：容量、单生产者FIFO、多生产者各自有序且不丢不重
+ *
+ * @author: agent
+ * @create: 2026-10-18 10:20
+ **/
+public class MpscBoundedQueueTest {
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo(){
+        assertEquals(1, new MpscBoundedQueue<>(1).getCapacity());
+        assertEquals(8, new MpscBoundedQueue<>(5).getCapacity());
+        assertEquals(8, new MpscBoundedQueue<>(8).getCapacity());
+    }
+
+    @Test
+    public void offerFailsWhenFullAndSucceedsAfterPoll(){
+        MpscBoundedQueue<Integer> queue = new MpscBoundedQueue<>(4);
+        for(int i = 0; i < 4; i++){
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+        assertEquals(Integer.valueOf(0), queue.poll());
+        assertTrue(queue.offer(4));
+    }
+
+    @Test
+    public void singleProducerIsFifoAcrossWrapAround(){
+        MpscBoundedQueue<Integer> queue = new MpscBoundedQueue<>(4);
+        int next = 0;
+        for(int i = 0; i < 100; i++){
+            assertTrue(queue.offer(i));
+            if(i % 3 == 2){
+                List<Integer> drained = new ArrayList<>();
+                queue.drainTo(drained, Integer.MAX_VALUE);
+                for(Integer e : drained){
+                    assertEquals(Integer.valueOf(next++), e);
+                }
+            }
+        }
+        while(!queue.isEmpty()){
+            assertEquals(Integer.valueOf(next++), queue.poll());
+        }
+        assertEquals(100, next);
+        assertNull(queue.poll());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void rejectsNull(){
+        new MpscBoundedQueue<>(4).offer(null);
+    }
+
+    @Test(timeout = 30000)
+    public void multipleProducersKeepPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 200000;
+        MpscBoundedQueue<long[]> queue = new MpscBoundedQueue<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for(int p = 0; p < producers; p++){
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for(long i = 0; i < perProducer; i++){
+                    long[] item = {producer, i};
+                    while(!queue.offer(item)){
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        long[] expected = new long[producers];
+        long received = 0;
+        while(received < (long) producers * perProducer){
+            long[] item = queue.poll();
+            if(item == null){
+                Thread.yield();
+                continue;
+            }
+            assertEquals(expected[(int) item[0]], item[1]);
+            expected[(int) item[0]]++;
+            received++;
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+        for(long count : expected){
+            assertEquals(perProducer, count);
+        }
+        assertTrue(queue.isEmpty());
+    }
+}